@@ -0,0 +1,29 @@
+package com.group1.froggy.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+    name = "BatchItemResult",
+    description = "Outcome of one item of a batch request. Results are returned in the order the items were sent."
+)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult<T>(
+    @Schema(description = "HTTP status the item would have had as a single request")
+    int status,
+
+    @Schema(description = "The resulting object; absent when the item failed", nullable = true)
+    T item,
+
+    @Schema(description = "Why the item failed; absent when it succeeded", nullable = true)
+    String detail
+) {
+
+    public static <T> BatchItemResult<T> success(int status, T item) {
+        return new BatchItemResult<>(status, item, null);
+    }
+
+    public static <T> BatchItemResult<T> failure(int status, String detail) {
+        return new BatchItemResult<>(status, null, detail);
+    }
+}
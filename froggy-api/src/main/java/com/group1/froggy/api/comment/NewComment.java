@@ -0,0 +1,20 @@
+package com.group1.froggy.api.comment;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.NonNull;
+
+import java.util.UUID;
+
+@Schema(
+    name = "NewComment",
+    description = "Data required to create a comment as part of a batch."
+)
+public record NewComment(
+    @Schema(description = "The post to comment on")
+    @NonNull
+    UUID postId,
+
+    @Schema(description = "The content of the comment")
+    @NonNull
+    String content
+) { }
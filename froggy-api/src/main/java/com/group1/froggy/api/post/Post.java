@@ -1,10 +1,13 @@
 package com.group1.froggy.api.post;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.group1.froggy.api.account.Account;
+import com.group1.froggy.api.comment.Comment;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.NonNull;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Schema(
@@ -42,5 +45,30 @@ public record Post(
 
     @Schema(description = "Statistics related to the post")
     @NonNull
-    Boolean likedByCurrentUser
-) { }
+    Boolean likedByCurrentUser,
+
+    @Schema(description = "The newest comments on the post, newest first; only present when previews were requested", nullable = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    List<Comment> previewComments
+) {
+
+    public Post(
+        UUID id,
+        Account author,
+        String content,
+        Long numberOfLikes,
+        Long numberOfComments,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Boolean likedByCurrentUser
+    ) {
+        this(id, author, content, numberOfLikes, numberOfComments, createdAt, updatedAt, likedByCurrentUser, null);
+    }
+
+    /**
+     * @return a copy of this post carrying the given comment previews
+     */
+    public Post withPreviewComments(List<Comment> previewComments) {
+        return new Post(id, author, content, numberOfLikes, numberOfComments, createdAt, updatedAt, likedByCurrentUser, previewComments);
+    }
+}
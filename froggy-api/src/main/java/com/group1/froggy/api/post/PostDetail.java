@@ -0,0 +1,24 @@
+package com.group1.froggy.api.post;
+
+import com.group1.froggy.api.comment.Comment;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.NonNull;
+
+import java.util.List;
+
+@Schema(
+    name = "PostDetail",
+    description = "A post together with the first page of its comments."
+)
+public record PostDetail(
+    @Schema(description = "The post")
+    @NonNull
+    Post post,
+
+    @Schema(description = "The first page of comments on the post, oldest first")
+    @NonNull
+    List<Comment> comments,
+
+    @Schema(description = "Cursor for the next page of comments, to pass to GET /comment/{postId}; absent when there are no more", nullable = true)
+    String nextCommentsCursor
+) { }
@@ -0,0 +1,110 @@
+package com.group1.froggy.app.account;
+
+import com.group1.froggy.app.config.UsernameFilterProperties;
+import com.group1.froggy.jpa.account.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of every username, used to skip the existence query on signup when a username is
+ * certainly free.
+ *
+ * <p>The filter is filled once at startup by streaming all usernames and then updated on every signup handled
+ * by this instance. Until the initial load has finished every username is reported as possibly present.
+ * Accounts created through another instance are only known after a restart, so a negative is only a hint: signup
+ * relies on the unique constraint on {@code account.username} as the real check, and login never consults the
+ * filter.</p>
+ *
+ * <p>Published metrics: {@code froggy.username.filter.size} (bits), {@code froggy.username.filter.false.positive.rate}
+ * (expected rate given the bits set so far) and {@code froggy.username.filter.checks} tagged with the result.</p>
+ */
+@Slf4j
+@Component
+public class UsernameFilter {
+
+    private final boolean enabled;
+    private final BloomFilter filter;
+    private final AccountRepository accountRepository;
+    private final Counter absent;
+    private final Counter maybePresent;
+
+    private volatile boolean loaded;
+
+    public UsernameFilter(UsernameFilterProperties properties, AccountRepository accountRepository, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.filter = new BloomFilter(properties.expectedUsernames(), properties.falsePositiveRate());
+        this.accountRepository = accountRepository;
+
+        Gauge.builder("froggy.username.filter.size", filter, BloomFilter::bitCount)
+            .description("Number of bits in the username filter")
+            .baseUnit("bits")
+            .register(meterRegistry);
+        Gauge.builder("froggy.username.filter.false.positive.rate", filter, BloomFilter::expectedFalsePositiveRate)
+            .description("Expected share of unknown usernames the filter reports as possibly present")
+            .register(meterRegistry);
+        this.absent = Counter.builder("froggy.username.filter.checks")
+            .description("Username filter lookups")
+            .tag("result", "absent")
+            .register(meterRegistry);
+        this.maybePresent = Counter.builder("froggy.username.filter.checks")
+            .description("Username filter lookups")
+            .tag("result", "maybe-present")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Load every existing username into the filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long count = 0;
+        try (Stream<String> usernames = accountRepository.streamAllUsernames()) {
+            for (Iterator<String> iterator = usernames.iterator(); iterator.hasNext(); count++) {
+                filter.add(iterator.next());
+            }
+        }
+        loaded = true;
+        log.info("Loaded {} usernames into the username filter in {} ms ({} bits, {} hash functions)",
+            count, (System.nanoTime() - start) / 1_000_000, filter.bitCount(), filter.hashFunctions());
+    }
+
+    /**
+     * @param username the username to check
+     * @return false when this instance has not seen an account with this username
+     */
+    public boolean mightExist(String username) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+
+        boolean mightContain = filter.mightContain(username);
+        (mightContain ? maybePresent : absent).increment();
+        return mightContain;
+    }
+
+    /**
+     * Record a newly created account.
+     *
+     * @param username the username of the new account
+     */
+    public void add(String username) {
+        if (enabled) {
+            filter.add(username);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.group1.froggy.app.config;
+
+import com.group1.froggy.app.counters.CounterRepairJob;
+import org.quartz.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the {@link CounterRepairJob} every {@code froggy.counter-repair.interval}.
+ *
+ * <p>Only active when {@code froggy.counter-repair.enabled} is true.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "froggy.counter-repair", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CounterRepairConfig {
+
+    private static final String GROUP = "froggy";
+    private static final String NAME = "counter-repair";
+
+    @Bean
+    public JobDetail counterRepairJobDetail() {
+        return JobBuilder.newJob(CounterRepairJob.class)
+            .withIdentity(NAME, GROUP)
+            .withDescription("Recomputes denormalized like and comment counters")
+            .storeDurably()
+            .build();
+    }
+
+    @Bean
+    public Trigger counterRepairTrigger(JobDetail counterRepairJobDetail, CounterRepairProperties counterRepairProperties) {
+        return TriggerBuilder.newTrigger()
+            .forJob(counterRepairJobDetail)
+            .withIdentity(NAME, GROUP)
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMilliseconds(counterRepairProperties.interval().toMillis())
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+            .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the like and comment counter repair job, bound from {@code froggy.counter-repair.*}.
+ *
+ * @param enabled whether the repair job is scheduled
+ * @param interval time between repair runs
+ * @param batchSize number of posts or comments recounted per statement
+ */
+@ConfigurationProperties(prefix = "froggy.counter-repair")
+public record CounterRepairProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("6h")
+    Duration interval,
+
+    @DefaultValue("1000")
+    int batchSize
+) { }
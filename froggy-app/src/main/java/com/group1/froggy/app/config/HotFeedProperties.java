@@ -0,0 +1,26 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory feed of the newest posts, bound from {@code froggy.hot-feed.*}.
+ *
+ * @param enabled whether the newest posts are served from memory; when false every page is read from the database
+ * @param capacity how many of the newest posts are kept
+ * @param refreshInterval how often the feed is reloaded from the database, which bounds how long changes made by
+ *                        other instances or by counter repair stay invisible
+ */
+@ConfigurationProperties(prefix = "froggy.hot-feed")
+public record HotFeedProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("5000")
+    int capacity,
+
+    @DefaultValue("30s")
+    Duration refreshInterval
+) { }
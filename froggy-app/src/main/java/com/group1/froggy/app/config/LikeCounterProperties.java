@@ -0,0 +1,30 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for write-behind like counters, bound from {@code froggy.like-counters.*}.
+ *
+ * @param writeBehind whether like counter increments are buffered in memory and flushed in batches; when false
+ *                    every like updates its counter row in the liking transaction
+ * @param flushInterval longest time an increment waits in memory before it is written
+ * @param flushThreshold number of distinct posts and comments with pending increments that triggers an early flush
+ * @param stripes number of locks the pending increments are spread over
+ */
+@ConfigurationProperties(prefix = "froggy.like-counters")
+public record LikeCounterProperties(
+    @DefaultValue("true")
+    boolean writeBehind,
+
+    @DefaultValue("1s")
+    Duration flushInterval,
+
+    @DefaultValue("1000")
+    int flushThreshold,
+
+    @DefaultValue("64")
+    int stripes
+) { }
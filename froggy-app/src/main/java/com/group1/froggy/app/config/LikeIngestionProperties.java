@@ -0,0 +1,33 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for group-committed like inserts, bound from {@code froggy.like-ingestion.*}.
+ *
+ * @param groupCommit whether likes are queued and inserted in groups; when false every like is inserted on its own
+ * @param batchSize most likes written by one insert statement
+ * @param maxLinger longest a like waits for others to join its group before the group is written anyway
+ * @param maxWait longest a request waits for its like to be written before it fails with 503
+ * @param queueCapacity likes that may wait for a writer before new ones are rejected
+ */
+@ConfigurationProperties(prefix = "froggy.like-ingestion")
+public record LikeIngestionProperties(
+    @DefaultValue("true")
+    boolean groupCommit,
+
+    @DefaultValue("256")
+    int batchSize,
+
+    @DefaultValue("2ms")
+    Duration maxLinger,
+
+    @DefaultValue("5s")
+    Duration maxWait,
+
+    @DefaultValue("10000")
+    int queueCapacity
+) { }
@@ -0,0 +1,32 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the per-account index of liked posts and comments, bound from {@code froggy.liked-index.*}.
+ *
+ * @param enabled whether liked ids are answered from memory; when false every page queries the like tables
+ * @param maximumMemory approximate memory all cached accounts may take before the least recently used are dropped
+ * @param maximumLikesPerAccount accounts with more post or comment likes than this are not indexed and always
+ *                               query the like tables
+ * @param timeToLive how long an account stays cached after it was loaded, which bounds how long likes made through
+ *                   other instances stay invisible
+ */
+@ConfigurationProperties(prefix = "froggy.liked-index")
+public record LikedSetIndexProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("64MB")
+    DataSize maximumMemory,
+
+    @DefaultValue("50000")
+    int maximumLikesPerAccount,
+
+    @DefaultValue("5m")
+    Duration timeToLive
+) { }
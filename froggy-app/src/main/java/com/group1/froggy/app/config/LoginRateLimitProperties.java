@@ -0,0 +1,45 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the login and signup rate limiter, bound from {@code froggy.login-rate-limit.*}.
+ *
+ * <p>Attempts are limited by two token buckets: one per username, from any address, and one per client address,
+ * against any username. Each attempt takes a token from both, and tokens are added back one per refill
+ * interval up to the capacity.</p>
+ *
+ * @param enabled whether login and signup attempts are limited
+ * @param usernameCapacity attempts against a single username allowed in a burst
+ * @param usernameRefillInterval time for a username to regain one attempt
+ * @param addressCapacity attempts from a single address allowed in a burst
+ * @param addressRefillInterval time for an address to regain one attempt
+ * @param maximumBuckets upper bound on buckets kept per kind; the least recently used are dropped beyond this
+ * @param stripes number of locks guarding the buckets
+ */
+@ConfigurationProperties(prefix = "froggy.login-rate-limit")
+public record LoginRateLimitProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("10")
+    int usernameCapacity,
+
+    @DefaultValue("6s")
+    Duration usernameRefillInterval,
+
+    @DefaultValue("100")
+    int addressCapacity,
+
+    @DefaultValue("100ms")
+    Duration addressRefillInterval,
+
+    @DefaultValue("100000")
+    long maximumBuckets,
+
+    @DefaultValue("64")
+    int stripes
+) { }
@@ -0,0 +1,33 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for password hashing, bound from {@code froggy.password-hashing.*}.
+ *
+ * @param threads number of threads hashing passwords; 0 uses one per available processor
+ * @param queueCapacity how many hashing requests may wait for a thread before new ones are rejected
+ * @param targetLatency the time a single hash should take; the BCrypt strength is calibrated to this at startup
+ * @param minimumStrength lowest BCrypt strength calibration may choose
+ * @param maximumStrength highest BCrypt strength calibration may choose
+ */
+@ConfigurationProperties(prefix = "froggy.password-hashing")
+public record PasswordHashingProperties(
+    @DefaultValue("0")
+    int threads,
+
+    @DefaultValue("200")
+    int queueCapacity,
+
+    @DefaultValue("250ms")
+    Duration targetLatency,
+
+    @DefaultValue("10")
+    int minimumStrength,
+
+    @DefaultValue("14")
+    int maximumStrength
+) { }
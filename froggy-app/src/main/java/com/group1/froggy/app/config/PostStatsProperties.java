@@ -0,0 +1,35 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory post stats, bound from {@code froggy.post-stats.*}.
+ *
+ * @param enabled whether stats are kept in memory; when false they are computed on every request
+ * @param maximumSize how many posts' stats are kept
+ * @param maximumStaleness how long a like or comment on this instance may take to reach the stats, the delay
+ *                         between recompute runs
+ * @param timeToLive how long stats are kept after being computed, which bounds how long changes made by other
+ *                   instances or by counter repair stay invisible
+ * @param batchSize most posts whose counters are read in one query when recomputing
+ */
+@ConfigurationProperties(prefix = "froggy.post-stats")
+public record PostStatsProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("100000")
+    long maximumSize,
+
+    @DefaultValue("1s")
+    Duration maximumStaleness,
+
+    @DefaultValue("5m")
+    Duration timeToLive,
+
+    @DefaultValue("500")
+    int batchSize
+) { }
@@ -0,0 +1,141 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration for login sessions, bound from {@code froggy.session.*}.
+ *
+ * @param mode how sessions are issued and validated
+ * @param cache settings for the in-process cache of validated sessions
+ * @param signed settings for {@link Mode#SIGNED} sessions
+ * @param expiry how long {@link Mode#DATABASE} sessions stay valid
+ * @param sweeper settings for the background job deleting expired {@link Mode#DATABASE} sessions
+ * @param limits how many {@link Mode#DATABASE} sessions an account may hold
+ */
+@ConfigurationProperties(prefix = "froggy.session")
+public record SessionProperties(
+    @DefaultValue("database")
+    Mode mode,
+
+    @DefaultValue
+    Cache cache,
+
+    @DefaultValue
+    Signed signed,
+
+    @DefaultValue
+    Expiry expiry,
+
+    @DefaultValue
+    Sweeper sweeper,
+
+    @DefaultValue
+    Limits limits
+) {
+
+    public enum Mode {
+        /**
+         * Sessions are random tokens stored in the session table and validated by lookup.
+         */
+        DATABASE,
+        /**
+         * Sessions are HMAC-signed tokens validated without any database access.
+         */
+        SIGNED
+    }
+
+    /**
+     * @param maximumSize maximum number of sessions kept in memory before the least recently used are evicted
+     * @param timeToLive how long a validated session is trusted before it is checked against the database again.
+     *                   This bounds how long a session deleted by another instance can still be used on this one.
+     */
+    public record Cache(
+        @DefaultValue("10000")
+        long maximumSize,
+
+        @DefaultValue("60s")
+        Duration timeToLive
+    ) { }
+
+    /**
+     * @param activeKeyId id of the key new tokens are signed with
+     * @param keys base64 encoded HMAC-SHA256 secrets by key id. Tokens signed by any listed key are accepted,
+     *             so a key can be rotated by adding a new one, making it active, and removing the old one once
+     *             its tokens have expired.
+     * @param timeToLive how long an issued token is valid for
+     * @param maximumRevokedTokens upper bound on the number of logged out tokens remembered until they expire.
+     *                             Past it a logout revokes all of the account's tokens instead.
+     * @param maximumRevokedAccounts upper bound on the number of accounts logged out everywhere remembered until
+     *                               their tokens expire. Past it logging out everywhere is refused.
+     */
+    public record Signed(
+        String activeKeyId,
+
+        Map<String, String> keys,
+
+        @DefaultValue("7d")
+        Duration timeToLive,
+
+        @DefaultValue("100000")
+        long maximumRevokedTokens,
+
+        @DefaultValue("100000")
+        long maximumRevokedAccounts
+    ) { }
+
+    /**
+     * A session expires when either limit is reached. Validated sessions are cached, so a session may still be
+     * accepted for up to {@link Cache#timeToLive()} after it expires.
+     *
+     * @param idleTimeout how long a session stays valid without being used
+     * @param absoluteTimeout how long a session stays valid after login, regardless of use
+     */
+    public record Expiry(
+        @DefaultValue("30m")
+        Duration idleTimeout,
+
+        @DefaultValue("7d")
+        Duration absoluteTimeout
+    ) { }
+
+    /**
+     * @param enabled whether the sweeper job is scheduled
+     * @param interval time between two sweeps
+     * @param batchSize maximum number of sessions deleted per statement, bounding lock time and transaction size
+     * @param maximumBatchesPerRun maximum number of batches per sweep; anything left is picked up by the next run
+     */
+    public record Sweeper(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("5m")
+        Duration interval,
+
+        @DefaultValue("1000")
+        int batchSize,
+
+        @DefaultValue("100")
+        int maximumBatchesPerRun
+    ) { }
+
+    /**
+     * Signed sessions cannot be enumerated per account, so these limits only apply to {@link Mode#DATABASE}.
+     *
+     * @param maximumPerAccount sessions an account may hold; on login the least recently used sessions beyond this
+     *                          are deleted
+     * @param reuseExisting hand out the account's most recently used valid session on login instead of creating a new
+     *                      one. Clients logging in to the same account then share a session, so logging out one of
+     *                      them logs out all of them.
+     */
+    public record Limits(
+        @DefaultValue("10")
+        int maximumPerAccount,
+
+        @DefaultValue("false")
+        boolean reuseExisting
+    ) { }
+}
@@ -0,0 +1,41 @@
+package com.group1.froggy.app.config;
+
+import com.group1.froggy.app.session.SessionSweepJob;
+import org.quartz.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the {@link SessionSweepJob} every {@code froggy.session.sweeper.interval}.
+ *
+ * <p>Only active for database sessions and when {@code froggy.session.sweeper.enabled} is true.</p>
+ */
+@Configuration
+@ConditionalOnExpression("'${froggy.session.mode:database}'.equalsIgnoreCase('database') and ${froggy.session.sweeper.enabled:true}")
+public class SessionSweeperConfig {
+
+    private static final String GROUP = "froggy";
+    private static final String NAME = "session-sweeper";
+
+    @Bean
+    public JobDetail sessionSweepJobDetail() {
+        return JobBuilder.newJob(SessionSweepJob.class)
+            .withIdentity(NAME, GROUP)
+            .withDescription("Deletes expired sessions")
+            .storeDurably()
+            .build();
+    }
+
+    @Bean
+    public Trigger sessionSweepTrigger(JobDetail sessionSweepJobDetail, SessionProperties sessionProperties) {
+        return TriggerBuilder.newTrigger()
+            .forJob(sessionSweepJobDetail)
+            .withIdentity(NAME, GROUP)
+            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMilliseconds(sessionProperties.sweeper().interval().toMillis())
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+            .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for the trending score tables, bound from {@code froggy.trending-score.*}.
+ *
+ * @param initialMemoSize how many scores are computed at startup
+ * @param maximumMemoSize how many scores may be kept in memory, at 8 bytes each; larger indexes are computed by
+ *                        continuing the sequence from the end of the table
+ */
+@ConfigurationProperties(prefix = "froggy.trending-score")
+public record TrendingScoreProperties(
+    @DefaultValue("65536")
+    int initialMemoSize,
+
+    @DefaultValue("1048576")
+    int maximumMemoSize
+) { }
@@ -0,0 +1,24 @@
+package com.group1.froggy.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration for the in-memory username filter, bound from {@code froggy.username-filter.*}.
+ *
+ * @param enabled whether signup consults the filter; when false every signup checks the username with a query
+ * @param expectedUsernames number of usernames the filter is sized for. Past this the false positive rate rises
+ *                          above the target, which only costs extra lookups.
+ * @param falsePositiveRate target share of new usernames that still get an existence query
+ */
+@ConfigurationProperties(prefix = "froggy.username-filter")
+public record UsernameFilterProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("1000000")
+    long expectedUsernames,
+
+    @DefaultValue("0.01")
+    double falsePositiveRate
+) { }
@@ -4,13 +4,17 @@ import com.group1.froggy.api.account.Account;
 import com.group1.froggy.api.account.AccountCredentials;
 import com.group1.froggy.api.docs.returns.MinimalProblemDetail;
 import com.group1.froggy.api.docs.returns.MinimalValidationDetail;
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.security.LoginRateLimiter;
 import com.group1.froggy.app.services.AuthorizationService;
+import com.group1.froggy.app.session.CurrentSession;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
@@ -19,11 +23,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 /**
- * Controller responsible for account signup, login, logout and retrieving the
- * currently authenticated account via the session cookie.
+ * Controller responsible for account signup, login, logout (from one or all
+ * sessions) and retrieving the currently authenticated account via the
+ * session cookie.
  */
 @Slf4j
 @Validated
@@ -34,13 +38,13 @@ import org.springframework.web.server.ResponseStatusException;
 public class AuthorizationController {
 
     private final AuthorizationService authorizationService;
-
-    public static final String COOKIE_HEADER = "Cookie";
+    private final LoginRateLimiter loginRateLimiter;
 
     /**
      * Create a new account.
      *
      * @param accountUpload the credentials for the new account
+     * @param request the servlet request, used for the client address
      * @return the created Account
      */
     @ResponseStatus(HttpStatus.CREATED)
@@ -49,7 +53,9 @@ public class AuthorizationController {
     @ApiResponse(responseCode = "201", description = "Account created successfully")
     @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
     @ApiResponse(responseCode = "409", description = "Username already exists", content = {@Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
-    Account createAccount(@RequestBody @NotNull @Valid AccountCredentials accountUpload) {
+    @ApiResponse(responseCode = "429", description = "Too many attempts", headers = {@Header(name = "Retry-After", description = "Seconds to wait before trying again")}, content = {@Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    Account createAccount(@RequestBody @NotNull @Valid AccountCredentials accountUpload, HttpServletRequest request) {
+        loginRateLimiter.acquire(accountUpload.username(), request.getRemoteAddr());
         return authorizationService.createAccount(accountUpload);
     }
 
@@ -58,6 +64,7 @@ public class AuthorizationController {
      * Set-Cookie header with the session token on success.
      *
      * @param credentials the account credentials to authenticate
+     * @param request the servlet request, used for the client address
      * @return ResponseEntity with appropriate headers and status
      */
     @PostMapping("/login")
@@ -66,9 +73,12 @@ public class AuthorizationController {
     @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
     @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @ApiResponse(responseCode = "404", description = "Account not found", content = {@Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    @ApiResponse(responseCode = "429", description = "Too many attempts", headers = {@Header(name = "Retry-After", description = "Seconds to wait before trying again")}, content = {@Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     ResponseEntity<Void> loginAccount(
-        @RequestBody @NotNull(message = "Credentials are required") @Valid AccountCredentials credentials
+        @RequestBody @NotNull(message = "Credentials are required") @Valid AccountCredentials credentials,
+        HttpServletRequest request
     ) {
+        loginRateLimiter.acquire(credentials.username(), request.getRemoteAddr());
         return authorizationService.loginAccount(credentials);
     }
 
@@ -76,21 +86,17 @@ public class AuthorizationController {
      * Return the currently authenticated account identified by the session
      * cookie provided in the "Cookie" header.
      *
-     * @param cookie the raw Cookie header value containing the session token
+     * @param session the authenticated session of the current request
      * @return the Account associated with the session
-     * @throws ResponseStatusException if the cookie is missing or invalid
      */
     @GetMapping
     @Operation(summary = "Get the current logged in Account via the session token cookie")
     @ApiResponse(responseCode = "200", description = "Current account retrieved successfully")
     @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     Account getCurrentAccount(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie
+        @CurrentSession Session session
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return authorizationService.getCurrentAccount(cookie);
+        return authorizationService.getCurrentAccount(session);
     }
 
     /**
@@ -98,7 +104,7 @@ public class AuthorizationController {
      * success a response will be returned that clears the cookie in the
      * browser.
      *
-     * @param cookie the raw Cookie header value containing the session token
+     * @param session the authenticated session of the current request
      * @return ResponseEntity indicating success or failure
      */
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -109,12 +115,28 @@ public class AuthorizationController {
     @ApiResponse(responseCode = "401", description = "Invalid credentials")
     @ApiResponse(responseCode = "404", description = "Account not found")
     ResponseEntity<Void> logoutAccount(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie
+        @CurrentSession Session session
+    ) {
+        return authorizationService.logoutAccount(session);
+    }
+
+    /**
+     * Logout the account on every device by ending all of its sessions,
+     * including the current one. On success a response will be returned that
+     * clears the cookie in the browser.
+     *
+     * @param session the authenticated session of the current request
+     * @return ResponseEntity indicating success or failure
+     */
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping("/logout/all")
+    @Operation(summary = "Logout the account from every session")
+    @ApiResponse(responseCode = "204", description = "Successful logout from all sessions", headers = {@Header(name = "Set-Cookie", description = "Cookie with Max-Age=0 to clear the session from the browser")})
+    @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    ResponseEntity<Void> logoutEverywhere(
+        @CurrentSession Session session
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return authorizationService.logoutAccount(cookie);
+        return authorizationService.logoutEverywhere(session);
     }
 
 }
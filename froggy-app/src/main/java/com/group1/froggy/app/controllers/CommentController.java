@@ -1,28 +1,36 @@
 package com.group1.froggy.app.controllers;
 
+import com.group1.froggy.api.BatchItemResult;
 import com.group1.froggy.api.Content;
 import com.group1.froggy.api.comment.Comment;
+import com.group1.froggy.api.comment.NewComment;
 import com.group1.froggy.api.docs.returns.MinimalProblemDetail;
 import com.group1.froggy.api.docs.returns.MinimalValidationDetail;
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.pagination.CursorPage;
 import com.group1.froggy.app.services.CommentService;
+import com.group1.froggy.app.session.CurrentSession;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.UUID;
 
-import static com.group1.froggy.app.controllers.AuthorizationController.COOKIE_HEADER;
-
 /**
  * Controller that exposes CRUD operations for comments on posts.
  *
@@ -41,34 +49,50 @@ public class CommentController {
     private final CommentService commentService;
 
     /**
-     * Retrieve all comments for the given post.
+     * Retrieve a page of comments for the given post, oldest first.
+     *
+     * <p>When more comments follow, the response carries an opaque cursor in the
+     * {@value CursorPage#NEXT_CURSOR_HEADER} header; pass it back as {@code cursor} to get the next page.</p>
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param postId the UUID of the post to list comments for
+     * @param maxResults maximum number of comments to return (default 10, max 100)
+     * @param cursor cursor from the previous page's {@value CursorPage#NEXT_CURSOR_HEADER} header
      * @return list of comments for the post
      */
-    @Operation(summary = "Get all comments for a post", description = "Retrieves a list of comments associated with a specific post.")
-    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully")
+    @Operation(summary = "Get comments for a post", description = "Retrieves a page of comments associated with a specific post, oldest first.")
+    @ApiResponse(responseCode = "200", description = "Comments retrieved successfully", headers = {@Header(name = CursorPage.NEXT_CURSOR_HEADER, description = "Cursor for the next page, absent on the last page")})
     @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
     @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @ApiResponse(responseCode = "404", description = "Post not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @GetMapping("{postId}")
-    List<Comment> getCommentsByPost(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+    ResponseEntity<List<Comment>> getCommentsByPost(
+        @CurrentSession Session session,
 
         @NotNull(message = "Post ID cannot be null")
-        @PathVariable UUID postId
+        @PathVariable UUID postId,
+
+        @RequestParam(required = false, defaultValue = "10")
+        @Positive(message = "Max results must be positive")
+        @Max(value = 100, message = "Max results cannot exceed 100")
+        Integer maxResults,
+
+        @RequestParam(required = false)
+        String cursor
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
+        CursorPage<Comment> page = commentService.getCommentsByPost(session, postId, maxResults, cursor);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
         }
-        return commentService.getCommentsByPost(cookie, postId);
+        return response.body(page.items());
     }
 
     /**
      * Create a new comment for the specified post.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param postId the UUID of the post to comment on
      * @param content the comment content payload
      * @return the created Comment
@@ -81,7 +105,7 @@ public class CommentController {
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("{postId}")
     Comment createComment(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
 
         @PathVariable
         @NotNull(message = "Post ID cannot be null")
@@ -92,16 +116,36 @@ public class CommentController {
         @Valid
         Content content
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return commentService.createComment(cookie, postId, content);
+        return commentService.createComment(session, postId, content);
+    }
+
+    /**
+     * Create several comments in one request, on one or more posts.
+     *
+     * @param session the authenticated session of the current request
+     * @param comments the comments to create (at most 100)
+     * @return one result per comment in request order, each with its own status
+     */
+    @Operation(summary = "Create several comments", description = "Creates up to 100 comments in one transaction. Each comment gets its own result, in request order: 201 with the created comment, or 404 when its post does not exist. Requires authentication.")
+    @ApiResponse(responseCode = "200", description = "Comments processed, see each result for its status")
+    @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
+    @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    @PostMapping("batch")
+    List<BatchItemResult<Comment>> createComments(
+        @CurrentSession Session session,
+
+        @RequestBody
+        @NotEmpty(message = "At least one comment is required")
+        @Size(max = 100, message = "Cannot create more than 100 comments")
+        List<@NotNull(message = "Comment cannot be null") @Valid NewComment> comments
+    ) {
+        return commentService.createComments(session, comments);
     }
 
     /**
      * Edit an existing comment. Only the comment author may edit.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param commentId the UUID of the comment to edit
      * @param content the new comment content
      * @return the updated Comment
@@ -114,7 +158,7 @@ public class CommentController {
     @ApiResponse(responseCode = "404", description = "Comment not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @PatchMapping("{commentId}")
     Comment editComment(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
 
         @PathVariable
         @NotNull(message = "Comment ID cannot be null")
@@ -125,16 +169,13 @@ public class CommentController {
         @Valid
         Content content
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return commentService.editComment(cookie, commentId, content);
+        return commentService.editComment(session, commentId, content);
     }
 
     /**
      * Delete an existing comment. Only the comment author may delete.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param commentId the UUID of the comment to delete
      */
     @Operation(summary = "Delete an existing comment", description = "Deletes an existing comment. Only the author of the comment can delete it. Requires authentication.")
@@ -146,22 +187,19 @@ public class CommentController {
     @DeleteMapping("{commentId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     void deleteComment(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
 
         @PathVariable
         @NotNull(message = "Comment ID cannot be null")
         UUID commentId
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        commentService.deleteComment(cookie, commentId);
+        commentService.deleteComment(session, commentId);
     }
 
     /**
      * Like (or toggle like) on a comment by the currently authenticated user.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param commentId the UUID of the comment to like
      * @return the updated Comment with like changes applied
      */
@@ -172,16 +210,13 @@ public class CommentController {
     @ApiResponse(responseCode = "404", description = "Comment not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @PutMapping("{commentId}")
     Comment likeComment(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
 
         @PathVariable
         @NotNull(message = "Comment ID cannot be null")
         UUID commentId
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return commentService.likeComment(cookie, commentId);
+        return commentService.likeComment(session, commentId);
     }
 
 
@@ -5,6 +5,9 @@ import com.group1.froggy.api.error.ValidationDetail;
 import com.group1.froggy.api.error.ValidationProcessor;
 import com.group1.froggy.app.exceptions.IllegalActionException;
 import com.group1.froggy.app.exceptions.InvalidCredentialsException;
+import com.group1.froggy.app.exceptions.InvalidCursorException;
+import com.group1.froggy.app.exceptions.ServiceOverloadedException;
+import com.group1.froggy.app.exceptions.TooManyRequestsException;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
@@ -76,6 +79,42 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ProblemDetailFactory.createProblemDetail(HttpStatus.FORBIDDEN, e);
     }
 
+    /**
+     * Handle undecodable pagination cursors and return a 400 ProblemDetail.
+     *
+     * @param e the exception indicating the cursor is malformed
+     * @return a ProblemDetail with HTTP 400 status
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail invalidCursorException(InvalidCursorException e) {
+        return ProblemDetailFactory.createProblemDetail(HttpStatus.BAD_REQUEST, e);
+    }
+
+    /**
+     * Handle exceeded rate limits and return a 429 ProblemDetail with a
+     * Retry-After header.
+     *
+     * @param e the exception indicating the client is sending too many requests
+     * @return ResponseEntity containing a ProblemDetail and HTTP 429
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ProblemDetail> tooManyRequestsException(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+            .body(ProblemDetailFactory.createProblemDetail(HttpStatus.TOO_MANY_REQUESTS, e));
+    }
+
+    /**
+     * Handle saturated internal resources and return a 503 ProblemDetail.
+     *
+     * @param e the exception indicating the server is overloaded
+     * @return a ProblemDetail with HTTP 503 status
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ProblemDetail serviceOverloadedException(ServiceOverloadedException e) {
+        return ProblemDetailFactory.createProblemDetail(HttpStatus.SERVICE_UNAVAILABLE, e);
+    }
+
     /**
      * Handle bean validation constraint violations and return a 400
      * ValidationDetail describing the problems.
@@ -1,32 +1,38 @@
 package com.group1.froggy.app.controllers;
 
+import com.group1.froggy.api.BatchItemResult;
 import com.group1.froggy.api.docs.returns.MinimalProblemDetail;
 import com.group1.froggy.api.docs.returns.MinimalValidationDetail;
 import com.group1.froggy.api.post.Post;
+import com.group1.froggy.api.post.PostDetail;
 import com.group1.froggy.api.Content;
 import com.group1.froggy.api.post.PostStats;
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.pagination.CursorPage;
 import com.group1.froggy.app.services.PostService;
+import com.group1.froggy.app.session.CurrentSession;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.UUID;
 
-import static com.group1.froggy.app.controllers.AuthorizationController.COOKIE_HEADER;
-
 /**
  * Controller providing endpoints to create, list, edit, delete and like posts,
  * and to retrieve per-post statistics.
@@ -42,20 +48,25 @@ public class PostController {
     private final PostService postService;
 
     /**
-     * Retrieve a paginated list of posts.
+     * Retrieve a page of posts, newest first.
+     *
+     * <p>When more posts follow, the response carries an opaque cursor in the
+     * {@value CursorPage#NEXT_CURSOR_HEADER} header; pass it back as {@code cursor} to get the next page.</p>
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param maxResults maximum number of posts to return (default 10, max 100)
-     * @param offset result offset for pagination (default 0)
+     * @param offset result offset for pagination (default 0), ignored when a cursor is given
+     * @param cursor cursor from the previous page's {@value CursorPage#NEXT_CURSOR_HEADER} header
+     * @param previewComments number of newest comments to attach to each post (default 0, max 10)
      * @return list of posts
      */
     @GetMapping("/posts")
     @Operation(summary = "Get a list of Posts")
-    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully")
+    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully", headers = {@Header(name = CursorPage.NEXT_CURSOR_HEADER, description = "Cursor for the next page, absent on the last page")})
     @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
     @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
-    List<Post> getPosts(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+    ResponseEntity<List<Post>> getPosts(
+        @CurrentSession Session session,
 
         @RequestParam(required = false, defaultValue = "10")
         @Positive(message = "Max results must be positive")
@@ -64,18 +75,29 @@ public class PostController {
 
         @RequestParam(required = false, defaultValue = "0")
         @PositiveOrZero(message = "Offset must be positive")
-        Integer offset
+        Integer offset,
+
+        @RequestParam(required = false)
+        String cursor,
+
+        @RequestParam(required = false, defaultValue = "0")
+        @PositiveOrZero(message = "Preview comments must be positive")
+        @Max(value = 10, message = "Preview comments cannot exceed 10")
+        Integer previewComments
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
+        CursorPage<Post> page = postService.getPosts(session, maxResults, offset, cursor, previewComments);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
         }
-        return postService.getPosts(cookie, maxResults, offset);
+        return response.body(page.items());
     }
 
     /**
      * Create a new post authored by the currently authenticated user.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param content the post content payload
      * @return the created Post
      */
@@ -86,19 +108,16 @@ public class PostController {
     @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
     @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     Post createPost(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
         @RequestBody @NotNull(message = "Post data is required") @Valid Content content
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return postService.createPost(cookie, content);
+        return postService.createPost(session, content);
     }
 
     /**
      * Edit an existing post. Only the author may edit.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param postId the UUID of the post to edit
      * @param content the updated post content
      * @return the updated Post
@@ -111,20 +130,17 @@ public class PostController {
     @ApiResponse(responseCode = "403", description = "Only the author can edit the post", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @ApiResponse(responseCode = "404", description = "Post not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     Post editPost(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
         @PathVariable @NotNull(message = "Post ID is required") UUID postId,
         @RequestBody @NotNull(message = "Post data is required") @Valid Content content
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return postService.editPost(cookie, postId, content);
+        return postService.editPost(session, postId, content);
     }
 
     /**
      * Delete a post authored by the current user.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param postId the UUID of the post to delete
      */
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -136,19 +152,16 @@ public class PostController {
     @ApiResponse(responseCode = "403", description = "Only the author can delete the post", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @ApiResponse(responseCode = "404", description = "Post not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     void deletePost(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
         @PathVariable @NotNull(message = "Post ID is required") UUID postId
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        postService.deletePost(cookie, postId);
+        postService.deletePost(session, postId);
     }
 
     /**
      * Like (or toggle like) on a post by the current user.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request
      * @param postId the UUID of the post to like
      * @return the updated Post reflecting the like
      */
@@ -159,20 +172,93 @@ public class PostController {
     @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @ApiResponse(responseCode = "404", description = "Post not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     Post likePost(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
         @PathVariable @NotNull(message = "Post ID is required") UUID postId
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return postService.likePost(cookie, postId);
+        return postService.likePost(session, postId);
+    }
+
+    /**
+     * Like several posts in one request.
+     *
+     * @param session the authenticated session of the current request
+     * @param postIds the UUIDs of the posts to like (at most 100)
+     * @return one result per id in request order, each with its own status
+     */
+    @PostMapping("/likes")
+    @Operation(summary = "Like several Posts", description = "Likes up to 100 posts at once. Each id gets its own result, in request order: 200 with the liked post, or 404 when the post does not exist.")
+    @ApiResponse(responseCode = "200", description = "Likes processed, see each result for its status")
+    @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
+    @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    List<BatchItemResult<Post>> likePosts(
+        @CurrentSession Session session,
+
+        @RequestBody
+        @NotEmpty(message = "At least one post ID is required")
+        @Size(max = 100, message = "Cannot like more than 100 posts")
+        List<@NotNull(message = "Post ID cannot be null") UUID> postIds
+    ) {
+        return postService.likePosts(session, postIds);
+    }
+
+    /**
+     * Retrieve several posts by id, for clients refreshing posts they already know about.
+     *
+     * @param session the authenticated session of the current request
+     * @param ids ids of the posts to retrieve (at most 100)
+     * @return the posts in the order requested; ids without a post are skipped
+     */
+    @GetMapping
+    @Operation(summary = "Get Posts by id", description = "Returns the requested posts in request order. Ids that do not match a post are skipped.")
+    @ApiResponse(responseCode = "200", description = "Posts retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
+    @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    List<Post> getPostsByIds(
+        @CurrentSession Session session,
+
+        @RequestParam
+        @NotEmpty(message = "At least one post ID is required")
+        @Size(max = 100, message = "Cannot request more than 100 posts")
+        List<UUID> ids
+    ) {
+        return postService.getPostsByIds(session, ids);
+    }
+
+    /**
+     * Retrieve a single post with the first page of its comments.
+     *
+     * <p>Further comments are fetched from {@code GET /comment/{postId}} with the returned
+     * {@code nextCommentsCursor}.</p>
+     *
+     * @param session the authenticated session of the current request
+     * @param postId the UUID of the post to retrieve
+     * @param maxComments maximum number of comments to include (default 10, max 100)
+     * @return the post and its first comments
+     */
+    @GetMapping("/{postId}")
+    @Operation(summary = "Get a Post with the first page of its Comments")
+    @ApiResponse(responseCode = "200", description = "Post retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid fields provided", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalValidationDetail.class))})
+    @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    @ApiResponse(responseCode = "404", description = "Post not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
+    PostDetail getPost(
+        @CurrentSession Session session,
+
+        @PathVariable @NotNull(message = "Post ID is required") UUID postId,
+
+        @RequestParam(required = false, defaultValue = "10")
+        @Positive(message = "Max comments must be positive")
+        @Max(value = 100, message = "Max comments cannot exceed 100")
+        Integer maxComments
+    ) {
+        return postService.getPost(session, postId, maxComments);
     }
 
     /**
      * Retrieve statistics for a post (e.g. trending score). This is intended
      * to be an expensive operation for load testing.
      *
-     * @param cookie the session cookie header
+     * @param session the authenticated session of the current request; only required to be logged in
      * @param postId the UUID of the post to compute stats for
      * @return PostStats containing computed metrics for the post
      */
@@ -183,12 +269,9 @@ public class PostController {
     @ApiResponse(responseCode = "401", description = "Invalid credentials", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     @ApiResponse(responseCode = "404", description = "Post not found", content = {@io.swagger.v3.oas.annotations.media.Content(schema = @Schema(implementation = MinimalProblemDetail.class))})
     PostStats getPostStats(
-        @RequestHeader(value = COOKIE_HEADER, required = false) String cookie,
+        @CurrentSession Session session,
         @PathVariable @NotNull(message = "Post ID is required") UUID postId
     ) {
-        if (cookie == null || cookie.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing session cookie");
-        }
-        return postService.getPostStats(cookie, postId);
+        return postService.getPostStats(postId);
     }
 }
@@ -0,0 +1,24 @@
+package com.group1.froggy.app.counters;
+
+import lombok.RequiredArgsConstructor;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job running the {@link CounterRepair}.
+ *
+ * <p>Stored in the clustered JDBC job store, so only one application instance repairs counters at a time.</p>
+ */
+@DisallowConcurrentExecution
+@RequiredArgsConstructor
+public class CounterRepairJob extends QuartzJobBean {
+
+    private final CounterRepair counterRepair;
+
+    @Override
+    protected void executeInternal(@NonNull JobExecutionContext context) {
+        counterRepair.repair();
+    }
+}
@@ -0,0 +1,275 @@
+package com.group1.froggy.app.counters;
+
+import com.group1.froggy.app.config.LikeCounterProperties;
+import com.group1.froggy.app.feed.HotFeed;
+import com.group1.froggy.jpa.post.PostRepository;
+import com.group1.froggy.jpa.post.comment.CommentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToIntFunction;
+
+/**
+ * Write-behind buffer for the denormalized post and comment like counters.
+ *
+ * <p>A like still inserts its {@code post_like} or {@code comment_like} row synchronously; only the counter
+ * increment is deferred. Increments are recorded once the liking transaction commits and are held in
+ * {@link StripedCounter}s, then written as one batched statement per table every
+ * {@link LikeCounterProperties#flushInterval()}, or sooner once {@link LikeCounterProperties#flushThreshold()}
+ * distinct posts and comments are pending. Hot posts therefore cost one counter update per flush instead of one
+ * per like, and likes no longer queue on the post row lock. Readers add {@link #pendingPostLikes(UUID)} and
+ * {@link #pendingCommentLikes(UUID)} to the persisted counter.</p>
+ *
+ * <p>Crash safety: the like rows are the source of truth. Pending increments are flushed on graceful shutdown, and
+ * put back for the next flush if a write fails. If the process dies, up to one flush interval of increments is
+ * lost from the counters only, and {@link CounterRepair} restores them from the like rows on its next run. While a
+ * flush is in flight its increments are in neither place, so counts read at that moment can briefly be low.</p>
+ *
+ * <p>{@link CounterRepair} recounts counters from the like rows, which already include the likes pending here. It
+ * repairs through {@link #repairPostCounters} and {@link #repairCommentCounters}, which hold off flushes and hand
+ * it the pending likes to leave out of the recount, so every like reaches the counter once.</p>
+ *
+ * <p>Post likes are handed to the {@link HotFeed} in the transaction that adds them to the persisted counters, so
+ * the feed's counters move when the database's do.</p>
+ *
+ * <p>With {@link LikeCounterProperties#writeBehind()} disabled every increment is written in the liking
+ * transaction instead.</p>
+ */
+@Slf4j
+@Component
+public class LikeCounterBuffer implements DisposableBean {
+
+    private static final String EXECUTOR_NAME = "like-counter-flush";
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final HotFeed hotFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean writeBehind;
+    private final int flushThreshold;
+    private final StripedCounter postLikes;
+    private final StripedCounter commentLikes;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+    private final Counter flushed;
+    private final Timer duration;
+
+    public LikeCounterBuffer(
+        PostRepository postRepository,
+        CommentRepository commentRepository,
+        HotFeed hotFeed,
+        PlatformTransactionManager transactionManager,
+        LikeCounterProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.hotFeed = hotFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeBehind = properties.writeBehind();
+        this.flushThreshold = properties.flushThreshold();
+        this.postLikes = new StripedCounter(properties.stripes());
+        this.commentLikes = new StripedCounter(properties.stripes());
+
+        this.flushed = Counter.builder("froggy.like.counters.flushed")
+            .description("Counter rows updated by write-behind flushes")
+            .register(meterRegistry);
+        this.duration = Timer.builder("froggy.like.counters.flush.duration")
+            .description("Time taken by a write-behind flush")
+            .register(meterRegistry);
+        Gauge.builder("froggy.like.counters.pending", () -> postLikes.size() + commentLikes.size())
+            .description("Posts and comments with like increments waiting to be flushed")
+            .register(meterRegistry);
+
+        if (writeBehind) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(EXECUTOR_NAME).daemon().factory());
+            long interval = properties.flushInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Count a new like on a post once the current transaction commits.
+     */
+    public void recordPostLike(UUID postId) {
+        if (!writeBehind) {
+            transactionTemplate.executeWithoutResult(status -> {
+                postRepository.addToLikeCount(postId, 1);
+                hotFeed.addLikes(Map.of(postId, 1L));
+            });
+            return;
+        }
+        afterCommit(() -> {
+            if (postLikes.add(postId, 1) + commentLikes.size() >= flushThreshold) {
+                requestFlush();
+            }
+        });
+    }
+
+    /**
+     * Count a new like on a comment once the current transaction commits.
+     */
+    public void recordCommentLike(UUID commentId) {
+        if (!writeBehind) {
+            commentRepository.addToLikeCount(commentId, 1);
+            return;
+        }
+        afterCommit(() -> {
+            if (commentLikes.add(commentId, 1) + postLikes.size() >= flushThreshold) {
+                requestFlush();
+            }
+        });
+    }
+
+    /**
+     * @return likes on the post that are committed but not yet added to its persisted counter
+     */
+    public long pendingPostLikes(UUID postId) {
+        return writeBehind ? postLikes.get(postId) : 0;
+    }
+
+    /**
+     * @return likes on the comment that are committed but not yet added to its persisted counter
+     */
+    public long pendingCommentLikes(UUID commentId) {
+        return writeBehind ? commentLikes.get(commentId) : 0;
+    }
+
+    /**
+     * Repair post like counters while no flush can run.
+     *
+     * @param postIds posts being repaired
+     * @param repair the repair, given the likes on those posts still pending here, keyed by post id
+     * @return what {@code repair} returns
+     */
+    public synchronized int repairPostCounters(Collection<UUID> postIds, ToIntFunction<Map<UUID, Long>> repair) {
+        return repair.applyAsInt(pending(postLikes, postIds));
+    }
+
+    /**
+     * Repair comment like counters while no flush can run.
+     *
+     * @param commentIds comments being repaired
+     * @param repair the repair, given the likes on those comments still pending here, keyed by comment id
+     * @return what {@code repair} returns
+     */
+    public synchronized int repairCommentCounters(Collection<UUID> commentIds, ToIntFunction<Map<UUID, Long>> repair) {
+        return repair.applyAsInt(pending(commentLikes, commentIds));
+    }
+
+    /**
+     * Write all pending increments, one batched statement per table in a single transaction. On failure the
+     * increments are kept for the next flush.
+     *
+     * @return the number of counter rows updated
+     */
+    public synchronized int flush() {
+        flushRequested.set(false);
+        Map<UUID, Long> posts = postLikes.drain();
+        Map<UUID, Long> comments = commentLikes.drain();
+        if (posts.isEmpty() && comments.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!posts.isEmpty()) {
+                    postRepository.addToLikeCounts(posts);
+                    hotFeed.addLikes(posts);
+                }
+                if (!comments.isEmpty()) {
+                    commentRepository.addToLikeCounts(comments);
+                }
+            });
+        } catch (RuntimeException e) {
+            postLikes.restore(posts);
+            commentLikes.restore(comments);
+            throw e;
+        }
+
+        int rows = posts.size() + comments.size();
+        flushed.increment(rows);
+        duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return rows;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private Map<UUID, Long> pending(StripedCounter counter, Collection<UUID> ids) {
+        Map<UUID, Long> pending = new HashMap<>();
+        if (writeBehind) {
+            for (UUID id : ids) {
+                long likes = counter.get(id);
+                if (likes != 0) {
+                    pending.put(id, likes);
+                }
+            }
+        }
+        return pending;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; destroy() flushes whatever is left
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Like counter flush failed, keeping increments for the next attempt", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
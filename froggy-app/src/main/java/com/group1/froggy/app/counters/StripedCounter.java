@@ -0,0 +1,95 @@
+package com.group1.froggy.app.counters;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-id counters spread over a fixed set of lock stripes.
+ *
+ * <p>Like a {@code LongAdder} the stripes keep unrelated increments from contending with each other, but each
+ * stripe is a plain map guarded by its own lock, so {@link #drain()} can take every pending value and reset it in
+ * one step without losing increments that race with it.</p>
+ */
+final class StripedCounter {
+
+    private final Stripe[] stripes;
+    private final AtomicInteger size = new AtomicInteger();
+
+    StripedCounter(int stripeCount) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @return the number of distinct ids with a pending value
+     */
+    int add(UUID id, long delta) {
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            Long previous = stripe.values.put(id, delta + stripe.values.getOrDefault(id, 0L));
+            return previous == null ? size.incrementAndGet() : size.get();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    long get(UUID id) {
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            return stripe.values.getOrDefault(id, 0L);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove and return every pending value.
+     */
+    Map<UUID, Long> drain() {
+        Map<UUID, Long> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<UUID, Long> values;
+            stripe.lock.lock();
+            try {
+                if (stripe.values.isEmpty()) {
+                    continue;
+                }
+                values = stripe.values;
+                stripe.values = new HashMap<>();
+            } finally {
+                stripe.lock.unlock();
+            }
+            size.addAndGet(-values.size());
+            drained.putAll(values);
+        }
+        return drained;
+    }
+
+    /**
+     * Put drained values back, for example after a failed write.
+     */
+    void restore(Map<UUID, Long> drained) {
+        drained.forEach(this::add);
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private Stripe stripe(UUID id) {
+        int hash = id.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<UUID, Long> values = new HashMap<>();
+    }
+}
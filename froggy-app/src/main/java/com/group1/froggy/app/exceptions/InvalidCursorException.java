@@ -0,0 +1,15 @@
+package com.group1.froggy.app.exceptions;
+
+/**
+ * Thrown when a pagination cursor supplied by the client cannot be decoded.
+ *
+ * <p>Examples: a cursor that was truncated, edited by hand, or produced by a different endpoint.</p>
+ *
+ * <p>Global handling: mapped to HTTP 400 Bad Request by
+ * {@link com.group1.froggy.app.controllers.GlobalExceptionHandler#invalidCursorException(InvalidCursorException)}</p>
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
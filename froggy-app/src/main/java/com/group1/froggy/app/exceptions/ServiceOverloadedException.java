@@ -0,0 +1,16 @@
+package com.group1.froggy.app.exceptions;
+
+/**
+ * Thrown when a request cannot be served because a bounded internal resource is saturated.
+ *
+ * <p>Examples: the password hashing queue is full during a burst of logins or signups, or too many likes are
+ * waiting to be written.</p>
+ *
+ * <p>Global handling: mapped to HTTP 503 Service Unavailable by
+ * {@link com.group1.froggy.app.controllers.GlobalExceptionHandler#serviceOverloadedException(ServiceOverloadedException)}</p>
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
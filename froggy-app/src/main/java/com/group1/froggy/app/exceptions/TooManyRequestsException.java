@@ -0,0 +1,27 @@
+package com.group1.froggy.app.exceptions;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has exceeded a rate limit.
+ *
+ * <p>Examples: repeated login attempts for the same username, or a burst of signups from one address.</p>
+ *
+ * <p>Global handling: mapped to HTTP 429 Too Many Requests with a {@code Retry-After} header by
+ * {@link com.group1.froggy.app.controllers.GlobalExceptionHandler#tooManyRequestsException(TooManyRequestsException)}</p>
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    /**
+     * How long the client should wait before trying again.
+     */
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
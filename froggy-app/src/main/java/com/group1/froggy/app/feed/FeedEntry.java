@@ -0,0 +1,106 @@
+package com.group1.froggy.app.feed;
+
+import com.group1.froggy.api.account.Account;
+import com.group1.froggy.api.post.Post;
+import com.group1.froggy.jpa.post.PostJpa;
+import com.group1.froggy.jpa.post.PostView;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A post held by the {@link HotFeed}. Its position is fixed by its creation time and id; content and counts are
+ * updated in place.
+ */
+public final class FeedEntry {
+
+    private final UUID id;
+    private final Account author;
+    private final LocalDateTime createdAt;
+    private final AtomicLong likes;
+    private final AtomicLong comments;
+    private volatile Body body;
+
+    /**
+     * @param likes the persisted like counter
+     */
+    public FeedEntry(PostView row, long likes) {
+        this.id = row.id();
+        this.author = row.author();
+        this.createdAt = row.createdAt();
+        this.likes = new AtomicLong(likes);
+        this.comments = new AtomicLong(row.commentCount());
+        this.body = new Body(row.content(), row.updatedAt());
+    }
+
+    /**
+     * @param likes the persisted like counter
+     */
+    public FeedEntry(PostJpa postJpa, long likes) {
+        this.id = postJpa.getId();
+        this.author = postJpa.getAccount().toAccount();
+        this.createdAt = postJpa.getCreatedAt();
+        this.likes = new AtomicLong(likes);
+        this.comments = new AtomicLong(postJpa.getCommentCount());
+        this.body = new Body(postJpa.getContent(), postJpa.getUpdatedAt());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @param pendingLikes likes on the post not yet added to its persisted counter
+     * @param likedByCurrentUser whether the caller likes the post
+     */
+    public Post toPost(long pendingLikes, boolean likedByCurrentUser) {
+        Body current = body;
+        return new Post(
+            id,
+            author,
+            current.content(),
+            likes.get() + pendingLikes,
+            comments.get(),
+            createdAt,
+            current.updatedAt(),
+            likedByCurrentUser
+        );
+    }
+
+    void edit(FeedEntry edited) {
+        body = edited.body;
+    }
+
+    void addLikes(long delta) {
+        likes.addAndGet(delta);
+    }
+
+    void addComments(long delta) {
+        comments.addAndGet(delta);
+    }
+
+    /**
+     * Feed order: newest first, ties broken by descending id. Ids are compared as unsigned bytes, the way
+     * PostgreSQL orders {@code uuid}, so the feed and {@code idx_post_created_at_id} agree on every position.
+     *
+     * @return a negative number when the entry comes before the given key in the feed
+     */
+    int compareTo(LocalDateTime otherCreatedAt, UUID otherId) {
+        int byTime = otherCreatedAt.compareTo(createdAt);
+        if (byTime != 0) {
+            return byTime;
+        }
+        int byHigh = Long.compareUnsigned(otherId.getMostSignificantBits(), id.getMostSignificantBits());
+        if (byHigh != 0) {
+            return byHigh;
+        }
+        return Long.compareUnsigned(otherId.getLeastSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    private record Body(String content, LocalDateTime updatedAt) { }
+}
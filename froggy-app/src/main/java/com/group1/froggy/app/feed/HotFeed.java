@@ -0,0 +1,460 @@
+package com.group1.froggy.app.feed;
+
+import com.group1.froggy.app.config.HotFeedProperties;
+import com.group1.froggy.app.pagination.KeysetCursor;
+import com.group1.froggy.jpa.post.PostJpa;
+import com.group1.froggy.jpa.post.PostRepository;
+import com.group1.froggy.jpa.post.PostView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The newest posts, held in memory so that the first pages of {@code GET /post/posts} never reach the database.
+ *
+ * <p>Posts are kept in a ring buffer of {@link HotFeedProperties#capacity()} slots in feed order, newest first. A
+ * new post normally lands at the head, which only moves the head index back one slot and overwrites the oldest
+ * post once the ring is full. Readers take an optimistic {@link StampedLock} read, copy the slots of their page
+ * and only fall back to a real read lock if a writer got in between, so reads never write to shared memory. Like
+ * and comment counts are atomics updated in place under the read lock, so they never disturb readers.</p>
+ *
+ * <p>A page is served from memory only when it lies entirely inside the window, or when the window holds every
+ * post there is. Otherwise {@link #findLatest} returns empty and the caller reads the database.</p>
+ *
+ * <p>Like counts mirror the persisted counters: likes still pending in the {@link LikeCounterBuffer} are not held
+ * here, and callers add them when they build a post. Posts, edits, deletes, comment counts and persisted likes from
+ * this instance are applied once their transaction commits. The whole feed is reloaded every
+ * {@link HotFeedProperties#refreshInterval()}, which picks up changes made by other instances and corrections from
+ * counter repair. Transactions with a change for the feed hold a shared commit gate from just before they commit
+ * until the change is applied, and a reload holds it exclusively while it reads the database, so every change is
+ * either already in the reload's read or committed after it and replayed onto the new feed, never both.</p>
+ */
+@Slf4j
+@Component
+public class HotFeed implements DisposableBean {
+
+    private static final String EXECUTOR_NAME = "hot-feed-refresh";
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final StampedLock lock = new StampedLock();
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+    private final Map<UUID, FeedEntry> byId = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Written under the write lock
+    private FeedEntry[] ring;
+    private int head;
+    private int count;
+    private boolean complete;
+    private boolean loaded;
+
+    // Set while a reload reads the database, so changes made meanwhile can be replayed onto the new feed
+    private volatile Queue<Runnable> changesDuringReload;
+
+    public HotFeed(
+        PostRepository postRepository,
+        PlatformTransactionManager transactionManager,
+        HotFeedProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = properties.enabled() && properties.capacity() > 0;
+        this.capacity = properties.capacity();
+        this.ring = new FeedEntry[capacity];
+
+        this.hits = Counter.builder("froggy.feed.requests")
+            .description("Feed pages requested, by whether they were served from memory")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.misses = Counter.builder("froggy.feed.requests")
+            .description("Feed pages requested, by whether they were served from memory")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("froggy.feed.size", byId, Map::size)
+            .description("Posts held in the in-memory feed")
+            .register(meterRegistry);
+
+        if (enabled) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(EXECUTOR_NAME).daemon().factory());
+            long interval = properties.refreshInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::reloadQuietly, 0, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Read a page of the newest posts from memory.
+     *
+     * @param after cursor naming the post the page starts after, or null to start at {@code skip}
+     * @param skip posts to skip when there is no cursor
+     * @param limit most posts to return
+     * @return the posts in feed order, or empty when the page is not entirely held in memory
+     */
+    public Optional<List<FeedEntry>> findLatest(KeysetCursor after, int skip, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        List<FeedEntry> page = read(after, skip, limit);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                page = read(after, skip, limit);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        (page != null ? hits : misses).increment();
+        return Optional.ofNullable(page);
+    }
+
+    /**
+     * Add a new post to the feed once the current transaction commits.
+     */
+    public void put(PostJpa postJpa) {
+        if (!enabled) {
+            return;
+        }
+        // Built now, while the author can still be loaded in the current transaction
+        FeedEntry entry = new FeedEntry(postJpa, postJpa.getLikeCount());
+        afterCommit(() -> change(() -> insert(entry)));
+    }
+
+    /**
+     * Update the content of a post once the current transaction commits, when the post is in the feed. Edits never
+     * add a post, since an edited post outside the window has neighbours the feed does not hold.
+     */
+    public void edit(PostJpa postJpa) {
+        if (!enabled) {
+            return;
+        }
+        FeedEntry entry = new FeedEntry(postJpa, postJpa.getLikeCount());
+        afterCommit(() -> change(() -> {
+            FeedEntry existing = byId.get(entry.getId());
+            if (existing != null) {
+                existing.edit(entry);
+            }
+        }));
+    }
+
+    /**
+     * Drop a post from the feed once the current transaction commits.
+     */
+    public void remove(UUID postId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> change(() -> delete(postId)));
+    }
+
+    /**
+     * @param postId id of the post
+     * @return the post when it is among the newest posts held in memory
+     */
+    public Optional<FeedEntry> find(UUID postId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byId.get(postId));
+    }
+
+    /**
+     * Count likes added to the persisted counters once the current transaction commits.
+     *
+     * @param likes likes added, keyed by post id
+     */
+    public void addLikes(Map<UUID, Long> likes) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> adjust(() -> likes.forEach((postId, delta) -> {
+            FeedEntry entry = byId.get(postId);
+            if (entry != null) {
+                entry.addLikes(delta);
+            }
+        })));
+    }
+
+    /**
+     * Count comments added to or removed from a post once the current transaction commits.
+     */
+    public void addComments(UUID postId, long delta) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> adjust(() -> {
+            FeedEntry entry = byId.get(postId);
+            if (entry != null) {
+                entry.addComments(delta);
+            }
+        }));
+    }
+
+    /**
+     * Replace the feed with the newest posts in the database.
+     */
+    public void reload() {
+        List<FeedEntry> entries;
+        try {
+            // The gate is taken once the transaction holds its connection, so committers waiting on the gate can
+            // never hold the connection the reload needs
+            entries = transactionTemplate.execute(status -> {
+                commitGate.writeLock().lock();
+                try {
+                    long stamp = lock.writeLock();
+                    try {
+                        changesDuringReload = new ConcurrentLinkedQueue<>();
+                    } finally {
+                        lock.unlockWrite(stamp);
+                    }
+                    return load();
+                } finally {
+                    commitGate.writeLock().unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            long stamp = lock.writeLock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            throw e;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            ring = new FeedEntry[capacity];
+            byId.clear();
+            head = 0;
+            count = Math.min(entries.size(), capacity);
+            complete = entries.size() <= capacity;
+            for (int i = 0; i < count; i++) {
+                ring[i] = entries.get(i);
+                byId.put(ring[i].getId(), ring[i]);
+            }
+            changesDuringReload.forEach(Runnable::run);
+            changesDuringReload = null;
+            loaded = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<FeedEntry> load() {
+        // One extra row tells whether the window holds every post
+        List<PostView> rows = postRepository.findLatestPosts(0, capacity + 1);
+        List<FeedEntry> entries = new ArrayList<>(rows.size());
+        for (PostView row : rows) {
+            entries.add(new FeedEntry(row, row.likeCount()));
+        }
+        return entries;
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Hot feed reload failed, keeping the current feed", e);
+        }
+    }
+
+    /**
+     * Read a page without taking the lock. Under an optimistic read the fields may be mid-update, so this never
+     * fails on what it sees; a torn read is detected by the caller's validate and repeated under the read lock.
+     */
+    private List<FeedEntry> read(KeysetCursor after, int skip, int limit) {
+        FeedEntry[] slots = ring;
+        int first = head;
+        int size = count;
+        if (!loaded || slots.length == 0) {
+            return null;
+        }
+
+        int start = after == null ? skip : positionAfter(slots, first, size, after);
+        if (start < 0 || (start + limit > size && !complete)) {
+            return null;
+        }
+
+        int end = Math.min(start + limit, size);
+        List<FeedEntry> page = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            FeedEntry entry = slots[(first + i) % slots.length];
+            if (entry == null) {
+                return null;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+
+    /**
+     * Binary search for the first position whose post comes after the cursor in feed order.
+     *
+     * @return the position, {@code size} when every post comes before the cursor, or -1 on a torn read
+     */
+    private static int positionAfter(FeedEntry[] slots, int first, int size, KeysetCursor cursor) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            FeedEntry entry = slots[(first + middle) % slots.length];
+            if (entry == null) {
+                return -1;
+            }
+            if (entry.compareTo(cursor.createdAt(), cursor.id()) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Apply a change to the order of the feed.
+     */
+    private void change(Runnable change) {
+        long stamp = lock.writeLock();
+        try {
+            change.run();
+            Queue<Runnable> pending = changesDuringReload;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Apply a change to the counts of a post. Counts are atomic, so the read lock is enough to keep the change and
+     * its replay from straddling a reload's swap, and readers are never disturbed.
+     */
+    private void adjust(Runnable change) {
+        long stamp = lock.readLock();
+        try {
+            change.run();
+            Queue<Runnable> pending = changesDuringReload;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void insert(FeedEntry entry) {
+        if (byId.containsKey(entry.getId())) {
+            // Replayed onto a reload that already read the post
+            return;
+        }
+
+        int position = positionAfter(ring, head, count, new KeysetCursor(entry.getCreatedAt(), entry.getId()));
+        if (position == count && !complete) {
+            // Older than everything in a window that stops short of the end, so the posts in between are not held
+            return;
+        }
+        if (count == capacity) {
+            if (position == count) {
+                // Older than everything in a full window
+                return;
+            }
+            byId.remove(ring[(head + count - 1) % capacity].getId());
+            count--;
+            complete = false;
+        }
+
+        // Move the newer posts one slot towards the head to open the position, usually none of them
+        int newHead = (head + capacity - 1) % capacity;
+        for (int i = 0; i < position; i++) {
+            ring[(newHead + i) % capacity] = ring[(head + i) % capacity];
+        }
+        ring[(newHead + position) % capacity] = entry;
+        head = newHead;
+        count++;
+        byId.put(entry.getId(), entry);
+    }
+
+    private void delete(UUID postId) {
+        FeedEntry entry = byId.remove(postId);
+        if (entry == null) {
+            return;
+        }
+
+        int position = positionAfter(ring, head, count, new KeysetCursor(entry.getCreatedAt(), entry.getId())) - 1;
+        // Move the newer posts one slot towards the tail to close the gap
+        for (int i = position; i > 0; i--) {
+            ring[(head + i) % capacity] = ring[(head + i - 1) % capacity];
+        }
+        ring[head] = null;
+        head = (head + 1) % capacity;
+        count--;
+    }
+
+    /**
+     * Run an action once the current transaction commits, holding the commit gate from before the commit until the
+     * action has run.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean gated;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitGate.readLock().lock();
+                gated = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (gated) {
+                    gated = false;
+                    commitGate.readLock().unlock();
+                }
+            }
+        });
+    }
+}
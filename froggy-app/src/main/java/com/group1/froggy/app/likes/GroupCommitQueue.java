@@ -0,0 +1,206 @@
+package com.group1.froggy.app.likes;
+
+import com.group1.froggy.app.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Queues inserts and writes them in groups from a single writer thread.
+ *
+ * <p>The writer takes the first waiting key, then keeps collecting until it has {@code batchSize} keys or
+ * {@code maxLinger} has passed, and hands the distinct keys to one {@code insertAll} call. Under load groups fill
+ * immediately and the linger is never paid; when idle a key is written as soon as it arrives plus at most the
+ * linger. Each caller's future completes only after its group's statement has committed.</p>
+ *
+ * <p>If a group fails, for example because one of its targets was deleted, its keys are retried one at a time so
+ * that only the offending caller sees the error.</p>
+ *
+ * <p>No caller waits forever: a future not completed within {@code maxWait} fails with a
+ * {@link java.util.concurrent.TimeoutException}, though its key may still be written afterwards. When the writer
+ * stops, whether on shutdown or because it died, every request still queued fails with a
+ * {@link ServiceOverloadedException}.</p>
+ *
+ * @param <K> key of one insert
+ */
+@Slf4j
+final class GroupCommitQueue<K> {
+
+    private final String name;
+    private final int batchSize;
+    private final long maxLingerNanos;
+    private final long maxWaitNanos;
+    private final Function<Set<K>, Set<K>> insertAll;
+    private final BlockingQueue<Request<K>> queue;
+    private final Thread writer;
+    private final DistributionSummary groupSize;
+    private final Timer commitTime;
+    private volatile boolean running = true;
+    private volatile boolean stopped;
+
+    /**
+     * @param insertAll inserts the keys in one statement and returns the keys that were newly added
+     */
+    GroupCommitQueue(
+        String name,
+        int batchSize,
+        Duration maxLinger,
+        Duration maxWait,
+        int queueCapacity,
+        Function<Set<K>, Set<K>> insertAll,
+        MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.insertAll = insertAll;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.groupSize = DistributionSummary.builder("froggy.like.ingestion.group.size")
+            .description("Likes written per insert statement")
+            .tag("target", name)
+            .register(meterRegistry);
+        this.commitTime = Timer.builder("froggy.like.ingestion.commit")
+            .description("Time taken to write one group of likes")
+            .tag("target", name)
+            .register(meterRegistry);
+        this.writer = Thread.ofPlatform().name("like-ingestion-" + name).daemon().start(this::run);
+    }
+
+    /**
+     * @return completes with true when the key was inserted, false when it already existed
+     * @throws ServiceOverloadedException when the queue is full
+     */
+    CompletableFuture<Boolean> submit(K key) {
+        Request<K> request = new Request<>(key, new CompletableFuture<>());
+        if (!running || !queue.offer(request)) {
+            throw new ServiceOverloadedException("Too many likes waiting to be written, try again shortly");
+        }
+        if (stopped) {
+            // The writer exited after the running check; its final drain may have missed this request
+            failQueued();
+        }
+        return request.result().orTimeout(maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop accepting keys, write the ones already queued and stop the writer.
+     */
+    void shutdown() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Request<K>> group = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    collect(group);
+                } catch (InterruptedException e) {
+                    // Woken by shutdown; write what was collected and drain the rest
+                    queue.drainTo(group, batchSize - group.size());
+                }
+                if (!group.isEmpty()) {
+                    write(group);
+                    group.clear();
+                }
+            }
+        } catch (Throwable e) {
+            log.error("Like writer for {} likes died, failing queued likes", name, e);
+            throw e;
+        } finally {
+            running = false;
+            stopped = true;
+            group.forEach(this::fail);
+            failQueued();
+        }
+    }
+
+    /**
+     * Fail every queued request. Safe to call from any thread, since each request is taken from the queue once.
+     */
+    private void failQueued() {
+        Request<K> request;
+        while ((request = queue.poll()) != null) {
+            fail(request);
+        }
+    }
+
+    private void fail(Request<K> request) {
+        request.result().completeExceptionally(new ServiceOverloadedException("Likes are not being written, try again shortly"));
+    }
+
+    private void collect(List<Request<K>> group) throws InterruptedException {
+        Request<K> first = queue.take();
+        group.add(first);
+
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (group.size() < batchSize) {
+            if (queue.drainTo(group, batchSize - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Request<K> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void write(List<Request<K>> group) {
+        Set<K> keys = new LinkedHashSet<>();
+        for (Request<K> request : group) {
+            keys.add(request.key());
+        }
+
+        Set<K> inserted;
+        long start = System.nanoTime();
+        try {
+            inserted = new HashSet<>(insertAll.apply(keys));
+        } catch (RuntimeException e) {
+            if (keys.size() == 1) {
+                group.forEach(request -> request.result().completeExceptionally(e));
+            } else {
+                log.debug("Group of {} {} likes failed, retrying one at a time", keys.size(), name, e);
+                writeIndividually(group);
+            }
+            return;
+        }
+        commitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        groupSize.record(keys.size());
+
+        // When a key was submitted more than once only its first request counts as the insert
+        for (Request<K> request : group) {
+            request.result().complete(inserted.remove(request.key()));
+        }
+    }
+
+    private void writeIndividually(List<Request<K>> group) {
+        Map<K, List<Request<K>>> byKey = new LinkedHashMap<>();
+        for (Request<K> request : group) {
+            byKey.computeIfAbsent(request.key(), key -> new ArrayList<>()).add(request);
+        }
+        byKey.values().forEach(this::write);
+    }
+
+    private record Request<K>(K key, CompletableFuture<Boolean> result) { }
+}
@@ -0,0 +1,215 @@
+package com.group1.froggy.app.likes;
+
+import com.group1.froggy.app.config.LikeIngestionProperties;
+import com.group1.froggy.app.counters.LikeCounterBuffer;
+import com.group1.froggy.app.exceptions.ServiceOverloadedException;
+import com.group1.froggy.app.stats.PostStatsCache;
+import com.group1.froggy.jpa.post.comment.like.CommentLikeId;
+import com.group1.froggy.jpa.post.comment.like.CommentLikeJpa;
+import com.group1.froggy.jpa.post.comment.like.CommentLikeRepository;
+import com.group1.froggy.jpa.post.like.PostLikeId;
+import com.group1.froggy.jpa.post.like.PostLikeJpa;
+import com.group1.froggy.jpa.post.like.PostLikeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Inserts post and comment likes through {@link GroupCommitQueue}s.
+ *
+ * <p>Concurrent likes are coalesced into one multi-row {@code insert ... on conflict do nothing} per group, so a
+ * burst of likes costs one statement and one commit per group instead of one per like. Newly added likes are
+ * handed to the {@link LikeCounterBuffer}, the {@link LikedSetIndex} and the {@link PostStatsCache} before the
+ * waiting callers are released, so the like a caller just made is already visible in what they read back. Group
+ * sizes and commit times are published as {@code froggy.like.ingestion.*} tagged with {@code target=post} or
+ * {@code target=comment}.</p>
+ *
+ * <p>With {@link LikeIngestionProperties#groupCommit()} disabled each like is inserted on its own in the calling
+ * thread.</p>
+ */
+@Component
+public class LikeIngestion implements DisposableBean {
+
+    private final PostLikeRepository postLikeRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final LikedSetIndex likedSetIndex;
+    private final PostStatsCache postStatsCache;
+    private final GroupCommitQueue<PostLikeId> postLikes;
+    private final GroupCommitQueue<CommentLikeId> commentLikes;
+
+    public LikeIngestion(
+        PostLikeRepository postLikeRepository,
+        CommentLikeRepository commentLikeRepository,
+        LikeCounterBuffer likeCounterBuffer,
+        LikedSetIndex likedSetIndex,
+        PostStatsCache postStatsCache,
+        LikeIngestionProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.postLikeRepository = postLikeRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.likedSetIndex = likedSetIndex;
+        this.postStatsCache = postStatsCache;
+
+        if (properties.groupCommit()) {
+            this.postLikes = new GroupCommitQueue<>(
+                "post",
+                properties.batchSize(),
+                properties.maxLinger(),
+                properties.maxWait(),
+                properties.queueCapacity(),
+                this::insertPostLikes,
+                meterRegistry
+            );
+            this.commentLikes = new GroupCommitQueue<>(
+                "comment",
+                properties.batchSize(),
+                properties.maxLinger(),
+                properties.maxWait(),
+                properties.queueCapacity(),
+                this::insertCommentLikes,
+                meterRegistry
+            );
+        } else {
+            this.postLikes = null;
+            this.commentLikes = null;
+        }
+    }
+
+    /**
+     * Add a like from an account to a post and wait until it is committed.
+     *
+     * @return true when the like was added, false when the account already liked the post
+     * @throws EntityNotFoundException when the post does not exist
+     * @throws ServiceOverloadedException when too many likes are waiting or the like was not written in time
+     */
+    public boolean likePost(UUID postId, UUID accountId) {
+        if (postLikes == null) {
+            return insertPostLike(postId, accountId);
+        }
+        return await(postLikes.submit(PostLikeJpa.createId(postId, accountId)), "Post not found");
+    }
+
+    /**
+     * Add a like from an account to a comment and wait until it is committed.
+     *
+     * @return true when the like was added, false when the account already liked the comment
+     * @throws EntityNotFoundException when the comment does not exist
+     * @throws ServiceOverloadedException when too many likes are waiting or the like was not written in time
+     */
+    public boolean likeComment(UUID commentId, UUID accountId) {
+        if (commentLikes == null) {
+            return insertCommentLike(commentId, accountId);
+        }
+        return await(commentLikes.submit(CommentLikeJpa.createId(commentId, accountId)), "Comment not found");
+    }
+
+    /**
+     * Add likes from an account to several posts with one statement, in the calling thread. A batch is already a
+     * group, so it does not go through the group commit queue.
+     *
+     * @return the posts that were deleted before their like was written; the likes on every other post were added
+     *     or already existed
+     */
+    public Set<UUID> likePosts(Collection<UUID> postIds, UUID accountId) {
+        Set<PostLikeId> ids = new LinkedHashSet<>();
+        for (UUID postId : postIds) {
+            ids.add(PostLikeJpa.createId(postId, accountId));
+        }
+
+        try {
+            insertPostLikes(ids);
+            return Set.of();
+        } catch (DataIntegrityViolationException e) {
+            // The statement is all or nothing, so find the deleted posts one like at a time
+            Set<UUID> missing = new HashSet<>();
+            for (UUID postId : postIds) {
+                try {
+                    insertPostLike(postId, accountId);
+                } catch (DataIntegrityViolationException notFound) {
+                    missing.add(postId);
+                }
+            }
+            return missing;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (postLikes != null) {
+            postLikes.shutdown();
+            commentLikes.shutdown();
+        }
+    }
+
+    private boolean insertPostLike(UUID postId, UUID accountId) {
+        boolean added = postLikeRepository.insertIfAbsent(postId, accountId) > 0;
+        if (added) {
+            likeCounterBuffer.recordPostLike(postId);
+            likedSetIndex.postLiked(accountId, postId);
+            postStatsCache.changed(postId);
+        }
+        return added;
+    }
+
+    private boolean insertCommentLike(UUID commentId, UUID accountId) {
+        boolean added = commentLikeRepository.insertIfAbsent(commentId, accountId) > 0;
+        if (added) {
+            likeCounterBuffer.recordCommentLike(commentId);
+            likedSetIndex.commentLiked(accountId, commentId);
+        }
+        return added;
+    }
+
+    private Set<PostLikeId> insertPostLikes(Set<PostLikeId> ids) {
+        Set<PostLikeId> inserted = postLikeRepository.insertAllIfAbsent(ids);
+        for (PostLikeId id : inserted) {
+            likeCounterBuffer.recordPostLike(id.getPostId());
+            likedSetIndex.postLiked(id.getAccountId(), id.getPostId());
+            postStatsCache.changed(id.getPostId());
+        }
+        return inserted;
+    }
+
+    private Set<CommentLikeId> insertCommentLikes(Set<CommentLikeId> ids) {
+        Set<CommentLikeId> inserted = commentLikeRepository.insertAllIfAbsent(ids);
+        for (CommentLikeId id : inserted) {
+            likeCounterBuffer.recordCommentLike(id.getCommentId());
+            likedSetIndex.commentLiked(id.getAccountId(), id.getCommentId());
+        }
+        return inserted;
+    }
+
+    /**
+     * Wait for a queued like. A foreign key violation means the liked row was deleted before the group was written.
+     */
+    private static boolean await(CompletableFuture<Boolean> result, String notFoundMessage) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DataIntegrityViolationException) {
+                throw new EntityNotFoundException(notFoundMessage);
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ServiceOverloadedException("Timed out waiting for the like to be written, try again shortly");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
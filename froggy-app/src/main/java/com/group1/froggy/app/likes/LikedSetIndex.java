@@ -0,0 +1,196 @@
+package com.group1.froggy.app.likes;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group1.froggy.app.config.LikedSetIndexProperties;
+import com.group1.froggy.jpa.post.comment.like.CommentLikeJpa;
+import com.group1.froggy.jpa.post.comment.like.CommentLikeRepository;
+import com.group1.froggy.jpa.post.like.PostLikeJpa;
+import com.group1.froggy.jpa.post.like.PostLikeRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Answers "did this account like these posts or comments" from memory.
+ *
+ * <p>The ids an account liked are loaded on its first page request, two queries on the {@code account_id}
+ * indexes, and kept as {@link LikedIds} sorted arrays. Accounts are cached in a Caffeine cache bounded by
+ * {@link LikedSetIndexProperties#maximumMemory()}, each weighted by the bytes its arrays take, so the accounts
+ * that have not been seen for longest are dropped first. Likes added through {@link LikeIngestion} are merged into
+ * cached accounts. Likes made through other instances appear once the account's entry expires after
+ * {@link LikedSetIndexProperties#timeToLive()}.</p>
+ *
+ * <p>Accounts with more than {@link LikedSetIndexProperties#maximumLikesPerAccount()} likes of either kind are
+ * remembered as unindexed and keep querying the like tables per page, as does everything when the index is
+ * disabled.</p>
+ *
+ * <p>Memory is published as {@code froggy.liked.index.bytes} for the whole index and
+ * {@code froggy.liked.index.account.bytes} per loaded account; hit rates as the {@code cache.*} metrics tagged
+ * {@code cache=liked-sets}.</p>
+ */
+@Component
+public class LikedSetIndex {
+
+    public static final String CACHE_NAME = "liked-sets";
+
+    private final PostLikeRepository postLikeRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final boolean enabled;
+    private final int maximumLikesPerAccount;
+    private final Cache<UUID, AccountLikes> accounts;
+    private final DistributionSummary accountBytes;
+
+    public LikedSetIndex(
+        PostLikeRepository postLikeRepository,
+        CommentLikeRepository commentLikeRepository,
+        LikedSetIndexProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.postLikeRepository = postLikeRepository;
+        this.commentLikeRepository = commentLikeRepository;
+        this.enabled = properties.enabled();
+        this.maximumLikesPerAccount = properties.maximumLikesPerAccount();
+        this.accounts = Caffeine.newBuilder()
+            .maximumWeight(properties.maximumMemory().toBytes())
+            .weigher((UUID accountId, AccountLikes likes) -> (int) Math.min(Integer.MAX_VALUE, likes.bytes()))
+            .expireAfterWrite(properties.timeToLive())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, CACHE_NAME);
+
+        this.accountBytes = DistributionSummary.builder("froggy.liked.index.account.bytes")
+            .description("Memory taken by the liked ids of one account when it is loaded")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("froggy.liked.index.bytes", this, LikedSetIndex::bytes)
+            .description("Memory taken by all cached liked ids")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the subset of {@code postIds} liked by the account
+     */
+    public Set<UUID> likedPostIds(UUID accountId, Collection<UUID> postIds) {
+        AccountLikes likes = get(accountId);
+        if (likes == null) {
+            return new HashSet<>(postLikeRepository.findLikedPostIds(accountId, postIds));
+        }
+
+        Set<UUID> liked = new HashSet<>();
+        for (UUID postId : postIds) {
+            if (likes.posts().contains(postId)) {
+                liked.add(postId);
+            }
+        }
+        return liked;
+    }
+
+    /**
+     * @return the subset of {@code commentIds} liked by the account
+     */
+    public Set<UUID> likedCommentIds(UUID accountId, Collection<UUID> commentIds) {
+        AccountLikes likes = get(accountId);
+        if (likes == null) {
+            return new HashSet<>(commentLikeRepository.findLikedCommentIds(accountId, commentIds));
+        }
+
+        Set<UUID> liked = new HashSet<>();
+        for (UUID commentId : commentIds) {
+            if (likes.comments().contains(commentId)) {
+                liked.add(commentId);
+            }
+        }
+        return liked;
+    }
+
+    public boolean likesPost(UUID accountId, UUID postId) {
+        AccountLikes likes = get(accountId);
+        if (likes == null) {
+            return postLikeRepository.existsById(PostLikeJpa.createId(postId, accountId));
+        }
+        return likes.posts().contains(postId);
+    }
+
+    public boolean likesComment(UUID accountId, UUID commentId) {
+        AccountLikes likes = get(accountId);
+        if (likes == null) {
+            return commentLikeRepository.existsById(CommentLikeJpa.createId(commentId, accountId));
+        }
+        return likes.comments().contains(commentId);
+    }
+
+    /**
+     * Record a committed post like in the account's entry, if it is cached.
+     */
+    public void postLiked(UUID accountId, UUID postId) {
+        accounts.asMap().computeIfPresent(accountId, (id, likes) -> likes.withPost(postId));
+    }
+
+    /**
+     * Record a committed comment like in the account's entry, if it is cached.
+     */
+    public void commentLiked(UUID accountId, UUID commentId) {
+        accounts.asMap().computeIfPresent(accountId, (id, likes) -> likes.withComment(commentId));
+    }
+
+    /**
+     * @return the account's likes, or null when they must be read from the database
+     */
+    private AccountLikes get(UUID accountId) {
+        if (!enabled) {
+            return null;
+        }
+        AccountLikes likes = accounts.get(accountId, this::load);
+        return likes.indexed() ? likes : null;
+    }
+
+    /**
+     * Runs inside the cache's compute for the account, so a like merged with {@link #postLiked} while the account
+     * loads waits for the load and is applied on top of it.
+     */
+    private AccountLikes load(UUID accountId) {
+        // One row past the limit tells whether the account has too many likes to index
+        Limit limit = Limit.of(maximumLikesPerAccount + 1);
+        List<UUID> posts = postLikeRepository.findPostIdsLikedBy(accountId, limit);
+        List<UUID> comments = posts.size() > maximumLikesPerAccount
+            ? List.of()
+            : commentLikeRepository.findCommentIdsLikedBy(accountId, limit);
+        if (posts.size() > maximumLikesPerAccount || comments.size() > maximumLikesPerAccount) {
+            return AccountLikes.UNINDEXED;
+        }
+
+        AccountLikes likes = new AccountLikes(LikedIds.of(posts), LikedIds.of(comments), true);
+        accountBytes.record(likes.bytes());
+        return likes;
+    }
+
+    private double bytes() {
+        return accounts.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0))
+            .orElse(0L);
+    }
+
+    private record AccountLikes(LikedIds posts, LikedIds comments, boolean indexed) {
+
+        static final AccountLikes UNINDEXED = new AccountLikes(LikedIds.EMPTY, LikedIds.EMPTY, false);
+
+        AccountLikes withPost(UUID postId) {
+            return indexed ? new AccountLikes(posts.with(postId), comments, true) : this;
+        }
+
+        AccountLikes withComment(UUID commentId) {
+            return indexed ? new AccountLikes(posts, comments.with(commentId), true) : this;
+        }
+
+        long bytes() {
+            return posts.bytes() + comments.bytes();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.group1.froggy.app.pagination;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ *
+ * @param items the rows on this page, in list order
+ * @param nextCursor encoded {@link KeysetCursor} of the last row when more rows follow, otherwise null
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Response header carrying {@link #nextCursor()}, so list endpoints can keep returning a plain JSON array.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
@@ -0,0 +1,71 @@
+package com.group1.froggy.app.pagination;
+
+import com.group1.froggy.app.exceptions.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by {@code (created_at, id)}: newest first for posts, oldest first for the
+ * comments on a post.
+ *
+ * <p>The next page starts strictly after this row, so the query can seek straight to it through the
+ * index instead of counting past every earlier row. Clients only ever see the opaque, URL-safe
+ * {@link #encode() encoded} form and must pass it back unchanged.</p>
+ *
+ * @param createdAt creation time of the last row on the previous page
+ * @param id id of the last row on the previous page, used to break ties on equal timestamps
+ */
+public record KeysetCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final byte VERSION = 1;
+    private static final int ENCODED_BYTES = Byte.BYTES + Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    /**
+     * @return the cursor as an unpadded base64url string
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+            .put(VERSION)
+            .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+            .putInt(createdAt.getNano())
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param encoded a value previously returned by {@link #encode()}
+     * @return the decoded cursor
+     * @throws InvalidCursorException when the value is not a cursor produced by this class
+     */
+    public static KeysetCursor decode(String encoded) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (bytes.length != ENCODED_BYTES || bytes[0] != VERSION) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, ENCODED_BYTES - 1);
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        if (nano < 0 || nano > 999_999_999) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+
+        try {
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+            return new KeysetCursor(createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (DateTimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
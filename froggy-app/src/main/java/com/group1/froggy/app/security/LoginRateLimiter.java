@@ -0,0 +1,151 @@
+package com.group1.froggy.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.group1.froggy.app.config.LoginRateLimitProperties;
+import com.group1.froggy.app.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket limiter for login and signup attempts, checked before any hashing or database access.
+ *
+ * <p>Each attempt takes a token from the bucket of the username and from the bucket of the client address; see
+ * {@link LoginRateLimitProperties}. Buckets live in bounded caches that drop a bucket once it would have refilled
+ * completely, so forgetting it never loosens the limit, and a spray of distinct usernames cannot grow memory past
+ * {@link LoginRateLimitProperties#maximumBuckets()}. Bucket updates are guarded by a fixed set of striped locks
+ * rather than one lock per bucket or a global lock.</p>
+ *
+ * <p>Rejections are counted in {@code froggy.login.rate.limit.rejections}, tagged with the bucket kind.</p>
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final Ticker ticker;
+    private final Limit usernameLimit;
+    private final Limit addressLimit;
+    private final ReentrantLock[] stripes;
+
+    @Autowired
+    public LoginRateLimiter(LoginRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    LoginRateLimiter(LoginRateLimitProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = properties.enabled();
+        this.ticker = ticker;
+        this.usernameLimit = new Limit("username", properties.usernameCapacity(), properties.usernameRefillInterval(),
+            properties.maximumBuckets(), ticker, meterRegistry);
+        this.addressLimit = new Limit("address", properties.addressCapacity(), properties.addressRefillInterval(),
+            properties.maximumBuckets(), ticker, meterRegistry);
+
+        this.stripes = new ReentrantLock[properties.stripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Take one attempt for the username and address.
+     *
+     * @param username the username being logged in to or signed up
+     * @param address the client address
+     * @throws TooManyRequestsException when either bucket is empty
+     */
+    public void acquire(String username, String address) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = ticker.read();
+        if (address != null) {
+            addressLimit.acquire(address, now);
+        }
+        usernameLimit.acquire(username, now);
+    }
+
+    private ReentrantLock stripe(Object key) {
+        int hash = key.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private final class Limit {
+        private final int capacity;
+        private final long refillNanos;
+        private final Cache<String, Bucket> buckets;
+        private final Counter rejections;
+        private final String kind;
+
+        Limit(String kind, int capacity, Duration refillInterval, long maximumBuckets, Ticker ticker, MeterRegistry meterRegistry) {
+            this.kind = kind;
+            this.capacity = capacity;
+            this.refillNanos = refillInterval.toNanos();
+            this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumBuckets)
+                .expireAfterAccess(refillInterval.multipliedBy(capacity))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, buckets, "login-rate-limit-" + kind);
+            this.rejections = Counter.builder("froggy.login.rate.limit.rejections")
+                .description("Login and signup attempts rejected by the rate limiter")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        }
+
+        void acquire(String key, long now) {
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+            long waitNanos;
+            ReentrantLock lock = stripe(key);
+            lock.lock();
+            try {
+                waitNanos = bucket.tryTake(capacity, refillNanos, now);
+            } finally {
+                lock.unlock();
+            }
+
+            if (waitNanos > 0) {
+                rejections.increment();
+                throw new TooManyRequestsException("Too many attempts for this " + kind + ", try again later", Duration.ofNanos(waitNanos));
+            }
+        }
+    }
+
+    /**
+     * Mutable bucket state, only accessed while holding its stripe lock.
+     */
+    private static final class Bucket {
+        private long tokens;
+        private long lastRefill;
+
+        Bucket(long tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the time until the next token is added
+         */
+        long tryTake(int capacity, long refillNanos, long now) {
+            long refilled = (now - lastRefill) / refillNanos;
+            if (refilled > 0) {
+                tokens = Math.min(capacity, tokens + refilled);
+                lastRefill = tokens == capacity ? now : lastRefill + refilled * refillNanos;
+            }
+
+            if (tokens > 0) {
+                tokens--;
+                return 0;
+            }
+            return refillNanos - (now - lastRefill);
+        }
+    }
+}
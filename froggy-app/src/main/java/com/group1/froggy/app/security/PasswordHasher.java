@@ -0,0 +1,166 @@
+package com.group1.froggy.app.security;
+
+import com.group1.froggy.app.config.PasswordHashingProperties;
+import com.group1.froggy.app.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Runs BCrypt hashing on a dedicated, bounded thread pool.
+ *
+ * <p>Hashing is deliberately slow, so callers must not hold a database connection while waiting for it.
+ * The pool size and queue capacity cap how much CPU a burst of logins can take; requests beyond the
+ * queue capacity are rejected with {@link ServiceOverloadedException}. Pool and queue depth are
+ * published as the {@code executor.*} metrics tagged {@code name=password-hashing}.</p>
+ *
+ * <p>The BCrypt strength is calibrated once at startup so that a single hash takes roughly
+ * {@link PasswordHashingProperties#targetLatency()} on this machine.</p>
+ */
+@Slf4j
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private static final String EXECUTOR_NAME = "password-hashing";
+    private static final String CALIBRATION_PASSWORD = "froggy-calibration";
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+
+    public PasswordHasher(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        int threads = properties.threads() > 0 ? properties.threads() : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.queueCapacity()),
+            Thread.ofPlatform().name(EXECUTOR_NAME + "-", 0).daemon().factory()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, EXECUTOR_NAME);
+
+        this.strength = calibrate(properties.targetLatency(), properties.minimumStrength(), properties.maximumStrength());
+        this.encoder = new BCryptPasswordEncoder(strength);
+        Gauge.builder("froggy.password.hashing.strength", () -> strength)
+            .description("BCrypt strength used for new password hashes")
+            .register(meterRegistry);
+        log.info("Password hashing uses BCrypt strength {} on {} threads", strength, threads);
+    }
+
+    /**
+     * Hash a raw password with the calibrated strength.
+     *
+     * @param rawPassword the password to hash
+     * @return the BCrypt hash
+     * @throws ServiceOverloadedException when the hashing queue is full
+     */
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * Check a raw password against a stored hash.
+     *
+     * @param rawPassword the password provided by the user
+     * @param hashedPassword the stored BCrypt hash
+     * @return true when the password matches
+     * @throws ServiceOverloadedException when the hashing queue is full
+     */
+    public boolean matches(CharSequence rawPassword, String hashedPassword) {
+        return await(submit(() -> encoder.matches(rawPassword, hashedPassword)));
+    }
+
+    /**
+     * @param hashedPassword a stored BCrypt hash
+     * @return true when the hash was made with a lower strength than the calibrated one
+     */
+    public boolean needsRehash(String hashedPassword) {
+        return encoder.upgradeEncoding(hashedPassword);
+    }
+
+    /**
+     * Hash a password in the background and hand the result to a callback, without waiting for it.
+     * Nothing happens when the hashing queue is full; the rehash is simply retried on the next login.
+     *
+     * @param rawPassword the password to hash
+     * @param onHashed receives the new hash on a hashing thread
+     */
+    public void encodeInBackground(CharSequence rawPassword, Consumer<String> onHashed) {
+        try {
+            executor.execute(() -> {
+                try {
+                    onHashed.accept(encoder.encode(rawPassword));
+                } catch (RuntimeException e) {
+                    log.warn("Background password rehash failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipping background password rehash, hashing queue is full");
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException("Too many concurrent login attempts, try again shortly");
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Pick the highest strength between min and max whose hash time stays within the target.
+     * Each strength step doubles the work, so only the minimum strength is measured.
+     */
+    private static int calibrate(Duration targetLatency, int minimumStrength, int maximumStrength) {
+        if (minimumStrength >= maximumStrength) {
+            return minimumStrength;
+        }
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minimumStrength);
+        probe.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        probe.encode(CALIBRATION_PASSWORD);
+        long elapsed = System.nanoTime() - start;
+
+        int strength = minimumStrength;
+        while (strength < maximumStrength && elapsed * 2 <= targetLatency.toNanos()) {
+            strength++;
+            elapsed *= 2;
+        }
+        return strength;
+    }
+}
@@ -4,59 +4,80 @@ import com.group1.froggy.api.account.Account;
 import com.group1.froggy.api.account.AccountCredentials;
 import com.group1.froggy.api.account.Session;
 import com.group1.froggy.app.CookieBuilder;
+import com.group1.froggy.app.account.UsernameFilter;
 import com.group1.froggy.app.exceptions.InvalidCredentialsException;
+import com.group1.froggy.app.security.PasswordHasher;
+import com.group1.froggy.app.session.SessionCookieParser;
+import com.group1.froggy.app.session.SessionStore;
 import com.group1.froggy.jpa.account.AccountJpa;
 import com.group1.froggy.jpa.account.AccountRepository;
-import com.group1.froggy.jpa.account.session.SessionJpa;
-import com.group1.froggy.jpa.account.session.SessionRepository;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
-import java.util.Base64;
 import java.util.UUID;
 
+/**
+ * Account and session management.
+ *
+ * <p>Not transactional at class level: signup and login spend most of their time hashing, which must not
+ * hold a database connection. Each repository call runs in its own short transaction instead, and methods
+ * that need several statements to be atomic are annotated individually.</p>
+ */
 @Service
-@Transactional
 @RequiredArgsConstructor
 public class AuthorizationService {
     private final AccountRepository accountRepository;
-    private final SessionRepository sessionRepository;
-
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final SessionStore sessionStore;
+    private final PasswordHasher passwordHasher;
+    private final UsernameFilter usernameFilter;
 
     public static final String SESSION_COOKIE = "session";
 
     /**
      * Create a new account.
      *
+     * The existence query is skipped when the {@link UsernameFilter} knows the username is free.
+     *
      * @param accountCredentials credentials containing desired username and password
      * @return the created Account representation
      * @throws EntityExistsException if an account with the same username already exists
      */
     public Account createAccount(AccountCredentials accountCredentials) {
-        if (accountRepository.existsByUsername(accountCredentials.username())) {
+        String username = accountCredentials.username();
+        if (usernameFilter.mightExist(username) && accountRepository.existsByUsername(username)) {
             throw new EntityExistsException("Account with username already exists");
         }
 
-        String hashedPassword = passwordEncoder.encode(accountCredentials.password());
+        String hashedPassword = passwordHasher.encode(accountCredentials.password());
 
-        AccountJpa accountJpa = AccountJpa.create(accountCredentials.username(), hashedPassword);
+        AccountJpa accountJpa = AccountJpa.create(username, hashedPassword);
 
-        return accountRepository.save(accountJpa).toAccount();
+        Account account;
+        try {
+            account = accountRepository.save(accountJpa).toAccount();
+        } catch (DataIntegrityViolationException e) {
+            // The unique constraint is the real check: the query above is skipped when the username filter
+            // rules the name out, and can race with a concurrent signup anyway
+            throw new EntityExistsException("Account with username already exists");
+        }
+        usernameFilter.add(username);
+        return account;
     }
 
     /**
      * Authenticate user credentials and create a session cookie.
      *
-     * This method validates the provided credentials, generates and persists a session token,
+     * This method validates the provided credentials, issues a session token from the configured SessionStore,
      * and returns an HTTP response with a Set-Cookie header containing the session value.
+     * Password hashes made with a lower BCrypt strength than the current one are upgraded in the background.
+     * The account is always looked up: the {@link UsernameFilter} only knows the usernames this instance has seen,
+     * so its negatives are not authoritative.
      *
      * @param credentials username and password to authenticate
      * @return ResponseEntity with Set-Cookie header on success (HTTP 200)
@@ -67,16 +88,20 @@ public class AuthorizationService {
         AccountJpa accountJpa = accountRepository.findByUsername(credentials.username())
             .orElseThrow(() -> new EntityNotFoundException("Account with username does not exist"));
 
-        if (!passwordEncoder.matches(credentials.password(), accountJpa.getHashedPassword())) {
+        if (!passwordHasher.matches(credentials.password(), accountJpa.getHashedPassword())) {
             throw new InvalidCredentialsException("Invalid password");
         }
 
-        SessionJpa sessionJpa = SessionJpa.create(generateToken(), accountJpa);
+        if (passwordHasher.needsRehash(accountJpa.getHashedPassword())) {
+            UUID accountId = accountJpa.getId();
+            passwordHasher.encodeInBackground(credentials.password(), hashedPassword ->
+                accountRepository.updateHashedPassword(accountId, hashedPassword));
+        }
 
-        sessionJpa = sessionRepository.save(sessionJpa);
+        Session session = sessionStore.create(accountJpa);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.SET_COOKIE, sessionCookie(sessionJpa.toSession()));
+        headers.add(HttpHeaders.SET_COOKIE, sessionCookie(session));
 
         return ResponseEntity.status(200)
             .headers(headers)
@@ -84,129 +109,109 @@ public class AuthorizationService {
     }
 
     /**
-     * Logout the user by deleting the session referenced in the provided cookie and
-     * returning a cleared session cookie (max-age 0).
+     * Logout the user by revoking the given session and returning a cleared session cookie (max-age 0).
      *
-     * @param cookie raw Cookie header value from the request
+     * @param session the session of the current request
      * @return ResponseEntity with cleared session cookie (HTTP 204)
-     * @throws InvalidCredentialsException when no valid session cookie is present or token is invalid
+     * @throws InvalidCredentialsException when the session is no longer valid
      */
-    public ResponseEntity<Void> logoutAccount(String cookie) {
-        Session session = parseSessionCookie(cookie);
-        if (session == null) {
-            throw new InvalidCredentialsException("No session cookie found");
-        }
-
-        if (!sessionRepository.sessionExists(session.accountId(), session.token())) {
+    @Transactional
+    public ResponseEntity<Void> logoutAccount(Session session) {
+        if (!sessionStore.revoke(session)) {
             throw new InvalidCredentialsException("Invalid token");
         }
 
-        sessionRepository.deleteById(SessionJpa.createId(session.accountId(), session.token()));
+        return clearedSessionCookieResponse();
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.SET_COOKIE, CookieBuilder.of(SESSION_COOKIE, "")
-            .withPath("/")
-            .withMaxAge(0)
-            .withHttpOnly()
-            .build());
+    /**
+     * Logout the account on every device by revoking all of its sessions, including the given one, and
+     * returning a cleared session cookie (max-age 0).
+     *
+     * @param session the session of the current request
+     * @return ResponseEntity with cleared session cookie (HTTP 204)
+     */
+    @Transactional
+    public ResponseEntity<Void> logoutEverywhere(Session session) {
+        sessionStore.revokeAll(session.accountId());
 
-        return ResponseEntity.status(204)
-            .headers(headers)
-            .build();
+        return clearedSessionCookieResponse();
     }
 
     /**
-     * Return the Account associated with the session cookie value.
+     * Return the Account associated with a session.
      *
-     * @param cookie raw Cookie header value from the request
+     * @param session the session of the current request
      * @return Account corresponding to the session
-     * @throws InvalidCredentialsException when cookie is missing, malformed, or token is invalid
+     * @throws InvalidCredentialsException when the account no longer exists
      */
-    public Account getCurrentAccount(String cookie) {
-        if (cookie == null) {
-            throw new InvalidCredentialsException("No session cookie found");
-        }
-
-        Session session = parseSessionCookie(cookie);
-        if (session == null) {
-            throw new InvalidCredentialsException("No session cookie found");
-        }
-
-        SessionJpa sessionJpa = sessionRepository.findById(SessionJpa.createId(session.accountId(), session.token()))
+    @Transactional(readOnly = true)
+    public Account getCurrentAccount(Session session) {
+        return accountRepository.findAccountById(session.accountId())
             .orElseThrow(() -> new InvalidCredentialsException("Invalid token"));
-
-        return sessionJpa.getAccount().toAccount();
     }
 
-    private String generateToken() {
-        final SecureRandom random = new SecureRandom();
-        byte[] token = new byte[64];
-        random.nextBytes(token);
-        return Base64.getEncoder().encodeToString(token);
+    /**
+     * Delete every session belonging to an account, logging it out on all devices.
+     *
+     * @param accountId id of the account to log out
+     */
+    @Transactional
+    public void invalidateAllSessions(UUID accountId) {
+        sessionStore.revokeAll(accountId);
     }
 
     /**
-     * Validate the given cookie and return the persisted SessionJpa entity.
-     *
-     * This will throw InvalidCredentialsException when the cookie is missing or malformed,
-     * or when the token does not correspond to a stored session.
+     * Validate the given cookie and return the session it refers to.
      *
      * @param cookie raw Cookie header value from the request
-     * @return SessionJpa representing the stored session
+     * @return Session representing the stored session
      * @throws InvalidCredentialsException when cookie is missing, malformed, or token not found
+     * @see SessionCookieParser
      */
-    public SessionJpa validateSession(String cookie) {
-        if (cookie == null) {
-            throw new InvalidCredentialsException("No session cookie found");
-        }
-        Session session = parseSessionCookie(cookie);
+    public Session validateSession(String cookie) {
+        Session session = SessionCookieParser.parse(cookie);
         if (session == null) {
             throw new InvalidCredentialsException("No session cookie found");
         }
-        return sessionRepository.findById(SessionJpa.createId(session.accountId(), session.token()))
-            .orElseThrow(() -> new InvalidCredentialsException("Invalid token"));
+        return validateSession(session);
     }
 
     /**
-     * Quick check whether the provided cookie represents an existing, valid session.
+     * Validate a session already parsed from a cookie.
      *
-     * @param cookie raw Cookie header value from the request
-     * @return true when a valid session exists for the cookie, false otherwise
+     * How the session is checked depends on the configured {@link SessionStore}.
+     *
+     * @param session the session presented by the client
+     * @return Session representing the stored session
+     * @throws InvalidCredentialsException when the token does not correspond to a valid session
      */
-    public boolean isValidSession(String cookie) {
-        if (cookie == null) {
-            return false;
-        }
-        Session session = parseSessionCookie(cookie);
-        if (session == null) {
-            return false;
+    public Session validateSession(Session session) {
+        Session validated = sessionStore.find(session);
+        if (validated == null) {
+            throw new InvalidCredentialsException("Invalid token");
         }
-        return sessionRepository.sessionExists(session.accountId(), session.token());
+        return validated;
     }
 
-    private static String sessionCookie(Session session) {
-        return CookieBuilder.of(SESSION_COOKIE, session.accountId() + ":" + session.token())
+    private static ResponseEntity<Void> clearedSessionCookieResponse() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.SET_COOKIE, CookieBuilder.of(SESSION_COOKIE, "")
             .withPath("/")
+            .withMaxAge(0)
             .withHttpOnly()
+            .build());
+
+        return ResponseEntity.status(204)
+            .headers(headers)
             .build();
     }
 
-    private static Session parseSessionCookie(String cookie) {
-        if (cookie == null || cookie.isEmpty()) {
-            return null;
-        }
-        String[] paris = cookie.split(";");
-        for (String pair : paris) {
-            String[] keyValue = pair.split("=", 2);
-            if (keyValue.length == 2 && keyValue[0].trim().equals(SESSION_COOKIE)) {
-                String[] sessionParts = keyValue[1].trim().split(":", 2);
-                if (sessionParts.length == 2) {
-                    UUID accountId = UUID.fromString(sessionParts[0]);
-                    String token = sessionParts[1];
-                    return new Session(accountId, token);
-                }
-            }
-        }
-        return null;
+    private String sessionCookie(Session session) {
+        CookieBuilder cookie = CookieBuilder.of(SESSION_COOKIE, session.accountId() + ":" + session.token())
+            .withPath("/")
+            .withHttpOnly();
+        sessionStore.timeToLive().ifPresent(cookie::withMaxAge);
+        return cookie.build();
     }
 }
@@ -1,24 +1,36 @@
 package com.group1.froggy.app.services;
 
+import com.group1.froggy.api.BatchItemResult;
 import com.group1.froggy.api.Content;
+import com.group1.froggy.api.account.Session;
 import com.group1.froggy.api.comment.Comment;
+import com.group1.froggy.api.comment.NewComment;
+import com.group1.froggy.app.counters.LikeCounterBuffer;
 import com.group1.froggy.app.exceptions.IllegalActionException;
+import com.group1.froggy.app.exceptions.InvalidCursorException;
+import com.group1.froggy.app.feed.HotFeed;
+import com.group1.froggy.app.likes.LikeIngestion;
+import com.group1.froggy.app.likes.LikedSetIndex;
+import com.group1.froggy.app.pagination.CursorPage;
+import com.group1.froggy.app.pagination.KeysetCursor;
+import com.group1.froggy.app.stats.PostStatsCache;
 import com.group1.froggy.jpa.account.AccountJpa;
-import com.group1.froggy.jpa.account.session.SessionJpa;
+import com.group1.froggy.jpa.account.AccountRepository;
 import com.group1.froggy.jpa.post.PostRepository;
 import com.group1.froggy.jpa.post.comment.CommentJpa;
 import com.group1.froggy.jpa.post.comment.CommentRepository;
-import com.group1.froggy.jpa.post.comment.like.CommentLikeJpa;
-import com.group1.froggy.jpa.post.comment.like.CommentLikeRepository;
+import com.group1.froggy.jpa.post.comment.CommentView;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -29,118 +41,253 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
 
-    private final AuthorizationService authorizationService;
-    private final CommentLikeRepository commentLikeRepository;
+    private final AccountRepository accountRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final LikeIngestion likeIngestion;
+    private final HotFeed hotFeed;
+    private final LikedSetIndex likedSetIndex;
+    private final PostStatsCache postStatsCache;
 
     /**
-     * Retrieve comments for a post for an authorized session.
+     * Retrieve a page of comments on a post, oldest first.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * <p>Without a cursor the first page is returned. Whether the caller liked each comment is answered for the
+     * whole page at once.</p>
+     *
+     * @param session the authenticated session of the current request
      * @param postId id of the post to fetch comments for
-     * @return list of Comment DTOs including like counts and whether the current user liked each comment
-     * @throws com.group1.froggy.app.exceptions.InvalidCredentialsException when the session is invalid or missing
+     * @param maxResults how many comments to return (defaults to 10 when null or <= 0)
+     * @param cursor opaque cursor from a previous page, or null to start from the oldest comment
+     * @return page of Comment DTOs including like counts and whether the current user liked each comment, with a
+     *     cursor for the following page when there is one
+     * @throws InvalidCursorException when the cursor cannot be decoded
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Comment> getCommentsByPost(Session session, UUID postId, Integer maxResults, String cursor) {
+        int size = (maxResults == null || maxResults <= 0) ? 10 : maxResults;
+        KeysetCursor position = (cursor != null && !cursor.isBlank()) ? KeysetCursor.decode(cursor) : null;
+
+        // Fetch one extra row to learn whether another page follows without a count query
+        List<CommentView> rows;
+        if (position != null) {
+            rows = commentRepository.findViewsByPostIdAfter(postId, position.createdAt(), position.id(), PageRequest.of(0, size + 1));
+        } else {
+            rows = commentRepository.findViewsByPostId(postId, PageRequest.of(0, size + 1));
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            CommentView last = rows.getLast();
+            nextCursor = new KeysetCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new CursorPage<>(toCommentsWithLikes(session.accountId(), rows), nextCursor);
+    }
+
+    /**
+     * Retrieve the newest comments on each of several posts, with one query for the comments and like flags
+     * answered for all of them at once.
+     *
+     * @param session the authenticated session of the current request
+     * @param postIds posts to preview comments for
+     * @param perPost most comments per post
+     * @return comments per post id, newest first; posts without comments map to an empty list
      */
-    public List<Comment> getCommentsByPost(String cookie, UUID postId) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
+    @Transactional(readOnly = true)
+    public Map<UUID, List<Comment>> getPreviewComments(Session session, Collection<UUID> postIds, int perPost) {
+        Map<UUID, List<Comment>> previews = new HashMap<>();
+        for (UUID postId : postIds) {
+            previews.put(postId, new ArrayList<>(perPost));
+        }
 
-        return commentRepository.findCommentJpaByPostId(postId).stream()
-            .map(commentJpa -> toCommentWithLikes(sessionJpa.getAccount(), commentJpa))
-            .toList();
+        List<CommentView> rows = commentRepository.findNewestByPostIds(postIds, perPost);
+        for (Comment comment : toCommentsWithLikes(session.accountId(), rows)) {
+            previews.get(comment.postId()).add(comment);
+        }
+        return previews;
     }
 
     /**
-     * Create a new comment on a post authored by the account associated with the provided session cookie.
+     * Create a new comment on a post authored by the account associated with the given session.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * @param session the authenticated session of the current request
      * @param postId id of the post to comment on
      * @param content content payload for the new comment
      * @return created Comment DTO including metadata and like counts
      * @throws EntityNotFoundException when the post cannot be found
-     * @throws com.group1.froggy.app.exceptions.InvalidCredentialsException when the session is invalid or missing
      */
-    public Comment createComment(String cookie, UUID postId, Content content) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
-        if (!postRepository.existsById(postId)) {
+    public Comment createComment(Session session, UUID postId, Content content) {
+        // Bumping the post's comment counter doubles as the existence check
+        if (postRepository.addToCommentCount(postId, 1) == 0) {
             throw new EntityNotFoundException("Post not found");
         }
 
         CommentJpa commentJpa = CommentJpa.create(
             postRepository.getReferenceById(postId),
-            sessionJpa.getAccount(),
+            accountRepository.getReferenceById(session.accountId()),
             content
         );
 
         commentJpa = commentRepository.save(commentJpa);
+        hotFeed.addComments(postId, 1);
+        postStatsCache.changed(postId);
 
-        return toCommentWithLikes(sessionJpa.getAccount(), commentJpa);
+        return toComment(commentJpa, commentJpa.getLikeCount(), false);
+    }
+
+    /**
+     * Create several comments authored by the account associated with the given session, in one transaction.
+     *
+     * <p>The comment counters of all target posts are bumped with one JDBC batch, which doubles as the existence
+     * check, and the comments are inserted with {@code saveAll}, which Hibernate sends as JDBC batches.</p>
+     *
+     * @param session the authenticated session of the current request
+     * @param comments comments to create
+     * @return one result per comment, in request order: 201 with the created comment, or 404 when its post does
+     *     not exist
+     */
+    public List<BatchItemResult<Comment>> createComments(Session session, List<NewComment> comments) {
+        Map<UUID, Long> perPost = new HashMap<>();
+        for (NewComment comment : comments) {
+            perPost.merge(comment.postId(), 1L, Long::sum);
+        }
+        Set<UUID> found = postRepository.addToCommentCounts(perPost);
+
+        AccountJpa author = accountRepository.getReferenceById(session.accountId());
+        List<CommentJpa> created = new ArrayList<>(comments.size());
+        for (NewComment comment : comments) {
+            if (found.contains(comment.postId())) {
+                created.add(CommentJpa.create(
+                    postRepository.getReferenceById(comment.postId()),
+                    author,
+                    new Content(comment.content())
+                ));
+            }
+        }
+        Iterator<CommentJpa> saved = commentRepository.saveAll(created).iterator();
+
+        for (UUID postId : found) {
+            hotFeed.addComments(postId, perPost.get(postId));
+            postStatsCache.changed(postId);
+        }
+
+        List<BatchItemResult<Comment>> results = new ArrayList<>(comments.size());
+        for (NewComment comment : comments) {
+            if (found.contains(comment.postId())) {
+                CommentJpa commentJpa = saved.next();
+                results.add(BatchItemResult.success(HttpStatus.CREATED.value(), toComment(commentJpa, commentJpa.getLikeCount(), false)));
+            } else {
+                results.add(BatchItemResult.failure(HttpStatus.NOT_FOUND.value(), "Post not found"));
+            }
+        }
+        return results;
     }
 
     /**
      * Edit an existing comment. Only the author may edit their comment.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * @param session the authenticated session of the current request
      * @param commentId id of the comment to edit
      * @param content new content for the comment
      * @return updated Comment DTO
      * @throws EntityNotFoundException when the comment cannot be found
-     * @throws com.group1.froggy.app.exceptions.InvalidCredentialsException when the session is invalid or missing
      */
-    public Comment editComment(String cookie, UUID commentId, Content content) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
-        CommentJpa commentJpa = commentRepository.findById(commentId)
+    public Comment editComment(Session session, UUID commentId, Content content) {
+        CommentJpa commentJpa = commentRepository.findWithAuthorById(commentId)
             .orElseThrow(() -> new EntityNotFoundException("Comment not found"));
 
         commentJpa.setContent(content.content());
         commentJpa.setUpdatedAt(LocalDateTime.now());
 
-        return toCommentWithLikes(sessionJpa.getAccount(), commentRepository.save(commentJpa));
+        return toCommentWithLikes(session.accountId(), commentRepository.save(commentJpa));
     }
 
     /**
      * Delete an existing comment authored by the requesting account.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * @param session the authenticated session of the current request
      * @param commentId id of the comment to delete
      * @throws EntityNotFoundException when the comment cannot be found
      * @throws IllegalActionException when the requesting account is not the author
      */
-    public void deleteComment(String cookie, UUID commentId) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
+    public void deleteComment(Session session, UUID commentId) {
         CommentJpa commentJpa = commentRepository.findById(commentId)
             .orElseThrow(() -> new EntityNotFoundException("Comment not found"));
 
-        if (!commentJpa.getAccount().getId().equals(sessionJpa.getAccount().getId())) {
+        if (!commentJpa.getAccount().getId().equals(session.accountId())) {
             throw new IllegalActionException("Only the author can delete the comment");
         }
-        commentLikeRepository.deleteAllByComment(commentJpa);
-        commentRepository.delete(commentJpa);
+        // One statement: the comment's likes go with it through on delete cascade
+        commentRepository.deleteAllByIdInBatch(List.of(commentId));
+        postRepository.addToCommentCount(commentJpa.getPost().getId(), -1);
+        hotFeed.addComments(commentJpa.getPost().getId(), -1);
+        postStatsCache.changed(commentJpa.getPost().getId());
     }
 
     /**
      * Add a like from the current user to the specified comment.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * <p>Liking a comment twice is a no-op. The like row is written by {@link LikeIngestion}, grouped with other
+     * likes arriving at the same time, so no transaction or connection is held here while waiting for it.</p>
+     *
+     * @param session the authenticated session of the current request
      * @param commentId id of the comment to like
      * @return Comment DTO reflecting the updated like count and whether the current user liked it
      * @throws EntityNotFoundException when the comment cannot be found
      */
-    public Comment likeComment(String cookie, UUID commentId) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
-        CommentJpa commentJpa = commentRepository.findById(commentId)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Comment likeComment(Session session, UUID commentId) {
+        CommentJpa commentJpa = commentRepository.findWithAuthorById(commentId)
             .orElseThrow(() -> new EntityNotFoundException("Comment not found"));
 
-        commentLikeRepository.save(CommentLikeJpa.create(commentJpa, sessionJpa.getAccount()));
+        likeIngestion.likeComment(commentId, session.accountId());
 
-        return toCommentWithLikes(sessionJpa.getAccount(), commentJpa);
+        // A new like is already in the pending count by the time likeComment returns
+        return toComment(commentJpa, likes(commentJpa), true);
+    }
+
+    private Comment toCommentWithLikes(UUID accountId, CommentJpa commentJpa) {
+        boolean likedByCurrentUser = likedSetIndex.likesComment(accountId, commentJpa.getId());
+        return toComment(commentJpa, likes(commentJpa), likedByCurrentUser);
+    }
+
+    /**
+     * Convert a list of comment rows. Counts come from the rows plus pending likes, and whether the caller likes
+     * each comment from the {@link LikedSetIndex}.
+     */
+    private List<Comment> toCommentsWithLikes(UUID accountId, List<CommentView> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> commentIds = rows.stream().map(CommentView::id).toList();
+        Set<UUID> liked = likedSetIndex.likedCommentIds(accountId, commentIds);
+
+        List<Comment> comments = new ArrayList<>(rows.size());
+        for (CommentView row : rows) {
+            comments.add(new Comment(
+                row.id(),
+                row.postId(),
+                row.author(),
+                row.content(),
+                row.createdAt(),
+                row.updatedAt(),
+                row.likeCount() + likeCounterBuffer.pendingCommentLikes(row.id()),
+                liked.contains(row.id())
+            ));
+        }
+        return comments;
+    }
+
+    /**
+     * The persisted like counter plus likes still waiting in the write-behind buffer.
+     */
+    private long likes(CommentJpa commentJpa) {
+        return commentJpa.getLikeCount() + likeCounterBuffer.pendingCommentLikes(commentJpa.getId());
     }
 
-    private Comment toCommentWithLikes(AccountJpa accountJpa, CommentJpa commentJpa) {
-        long likes = commentLikeRepository.countByComment(commentJpa);
-        boolean likedByCurrentUser = commentLikeRepository.existsById(CommentLikeJpa.create(commentJpa, accountJpa).getId());
+    private static Comment toComment(CommentJpa commentJpa, long likes, boolean likedByCurrentUser) {
         return new Comment(
             commentJpa.getId(),
             commentJpa.getPost().getId(),
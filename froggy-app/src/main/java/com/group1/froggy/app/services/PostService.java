@@ -1,26 +1,33 @@
 package com.group1.froggy.app.services;
 
+import com.group1.froggy.api.BatchItemResult;
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.api.comment.Comment;
 import com.group1.froggy.api.post.Post;
 import com.group1.froggy.api.Content;
+import com.group1.froggy.api.post.PostDetail;
 import com.group1.froggy.api.post.PostStats;
 import com.group1.froggy.app.exceptions.IllegalActionException;
-import com.group1.froggy.app.exceptions.InvalidCredentialsException;
-import com.group1.froggy.jpa.account.AccountJpa;
-import com.group1.froggy.jpa.account.session.SessionJpa;
+import com.group1.froggy.app.counters.LikeCounterBuffer;
+import com.group1.froggy.app.exceptions.InvalidCursorException;
+import com.group1.froggy.app.feed.FeedEntry;
+import com.group1.froggy.app.feed.HotFeed;
+import com.group1.froggy.app.likes.LikeIngestion;
+import com.group1.froggy.app.likes.LikedSetIndex;
+import com.group1.froggy.app.pagination.CursorPage;
+import com.group1.froggy.app.pagination.KeysetCursor;
+import com.group1.froggy.app.stats.PostStatsCache;
+import com.group1.froggy.jpa.account.AccountRepository;
 import com.group1.froggy.jpa.post.PostJpa;
 import com.group1.froggy.jpa.post.PostRepository;
-import com.group1.froggy.jpa.post.comment.CommentJpa;
-import com.group1.froggy.jpa.post.comment.CommentRepository;
-import com.group1.froggy.jpa.post.comment.like.CommentLikeRepository;
-import com.group1.froggy.jpa.post.like.PostLikeJpa;
-import com.group1.froggy.jpa.post.like.PostLikeRepository;
+import com.group1.froggy.jpa.post.PostView;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -32,220 +39,362 @@ import java.util.*;
 @RequiredArgsConstructor
 public class PostService {
 
-    private final AuthorizationService authorizationService;
+    private final AccountRepository accountRepository;
     private final PostRepository postRepository;
-    private final PostLikeRepository postLikeRepository;
-    private final CommentRepository commentRepository;
-    private final CommentLikeRepository commentLikeRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final LikeIngestion likeIngestion;
+    private final HotFeed hotFeed;
+    private final LikedSetIndex likedSetIndex;
+    private final PostStatsCache postStatsCache;
+    private final CommentService commentService;
 
     /**
-     * Retrieve a paginated list of posts for an authorized session.
+     * Retrieve a page of posts, newest first, for an authorized session.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * <p>When a cursor is given the page starts right after the post it names and {@code offset} is
+     * ignored. Otherwise {@code offset} posts are skipped, which is kept for older clients.</p>
+     *
+     * <p>Pages among the newest posts are served from the {@link HotFeed}, with pending likes added and whether the
+     * caller liked each post answered by the {@link LikedSetIndex}. Other pages are read as {@link PostView} rows, so
+     * no entities are hydrated or snapshotted for dirty checking.</p>
+     *
+     * @param session the authenticated session of the current request
      * @param lastNPosts how many posts to return (defaults to 10 when null or <= 0)
      * @param offset number of posts to skip (defaults to 0 when null or < 0)
-     * @return list of Post DTOs including like/comment counts and whether the current user liked each post
-     * @throws InvalidCredentialsException when the session is invalid or missing
+     * @param cursor opaque cursor from a previous page, or null to start from the newest post
+     * @param previewComments how many of the newest comments to attach to each post; none when null or <= 0
+     * @return page of Post DTOs including like/comment counts and whether the current user liked each post,
+     *     with a cursor for the following page when there is one
+     * @throws InvalidCursorException when the cursor cannot be decoded
      */
-    public List<Post> getPosts(String cookie, Integer lastNPosts, Integer offset) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
+    @Transactional(readOnly = true)
+    public CursorPage<Post> getPosts(Session session, Integer lastNPosts, Integer offset, String cursor, Integer previewComments) {
+        CursorPage<Post> page = getPage(session, lastNPosts, offset, cursor);
+        if (previewComments == null || previewComments <= 0 || page.items().isEmpty()) {
+            return page;
+        }
+
+        List<UUID> postIds = page.items().stream().map(Post::id).toList();
+        Map<UUID, List<Comment>> previews = commentService.getPreviewComments(session, postIds, previewComments);
+
+        List<Post> posts = new ArrayList<>(page.items().size());
+        for (Post post : page.items()) {
+            posts.add(post.withPreviewComments(previews.get(post.id())));
+        }
+        return new CursorPage<>(posts, page.nextCursor());
+    }
 
+    private CursorPage<Post> getPage(Session session, Integer lastNPosts, Integer offset, String cursor) {
         int size = (lastNPosts == null || lastNPosts <= 0) ? 10 : lastNPosts;
         int skip = (offset == null || offset < 0) ? 0 : offset;
+        KeysetCursor position = (cursor != null && !cursor.isBlank()) ? KeysetCursor.decode(cursor) : null;
+
+        // Fetch one extra row to learn whether another page follows without a count query
+        Optional<List<FeedEntry>> fromFeed = hotFeed.findLatest(position, skip, size + 1);
+        if (fromFeed.isPresent()) {
+            List<FeedEntry> cached = fromFeed.get();
+            String nextCursor = null;
+            if (cached.size() > size) {
+                cached = cached.subList(0, size);
+                FeedEntry last = cached.getLast();
+                nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+            }
+            return new CursorPage<>(overlayLikes(session.accountId(), cached), nextCursor);
+        }
+
+        List<PostView> rows;
+        if (position != null) {
+            rows = postRepository.findLatestPostsBefore(position.createdAt(), position.id(), PageRequest.of(0, size + 1));
+        } else {
+            rows = postRepository.findLatestPosts(skip, size + 1);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            PostView last = rows.getLast();
+            nextCursor = new KeysetCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new CursorPage<>(toPostsWithLikes(session.accountId(), rows), nextCursor);
+    }
 
-        int page = skip / size;
-        int indexInPage = skip % size;
+    /**
+     * Retrieve several posts by id.
+     *
+     * <p>Posts among the newest are taken from the {@link HotFeed}; the rest are read with one query, whatever
+     * the number of ids. Whether the caller liked each post is answered in bulk by the {@link LikedSetIndex}.</p>
+     *
+     * @param session the authenticated session of the current request
+     * @param ids ids of the posts to retrieve
+     * @return the posts in the order of {@code ids}; ids without a post are skipped and repeated ids appear once
+     */
+    @Transactional(readOnly = true)
+    public List<Post> getPostsByIds(Session session, List<UUID> ids) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+
+        List<FeedEntry> cached = new ArrayList<>();
+        List<UUID> uncached = new ArrayList<>();
+        for (UUID id : requested) {
+            hotFeed.find(id).ifPresentOrElse(cached::add, () -> uncached.add(id));
+        }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        List<PostJpa> pageContent = postRepository.findLatestPosts(pageable);
+        Map<UUID, Post> found = new HashMap<>();
+        for (Post post : overlayLikes(session.accountId(), cached)) {
+            found.put(post.id(), post);
+        }
+        if (!uncached.isEmpty()) {
+            for (Post post : toPostsWithLikes(session.accountId(), postRepository.findViewsByIds(uncached))) {
+                found.put(post.id(), post);
+            }
+        }
 
-        List<PostJpa> combined = new ArrayList<>(pageContent);
+        List<Post> posts = new ArrayList<>(found.size());
+        for (UUID id : requested) {
+            Post post = found.get(id);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return posts;
+    }
 
-        if (indexInPage != 0) {
-            Pageable nextPageable = PageRequest.of(page + 1, size, Sort.by("createdAt").descending());
-            List<PostJpa> nextPageContent = postRepository.findLatestPosts(nextPageable);
-            combined.addAll(nextPageContent);
+    /**
+     * Retrieve one post with the first page of its comments, in one read-only transaction.
+     *
+     * <p>The post comes from the {@link HotFeed} when it is among the newest posts and from a single
+     * {@link PostView} row otherwise. The comments are one page query; whether the caller liked the post and the
+     * comments is answered by the {@link LikedSetIndex}.</p>
+     *
+     * @param session the authenticated session of the current request
+     * @param postId id of the post to retrieve
+     * @param maxComments how many comments to include (defaults to 10 when null or <= 0)
+     * @return the post and its first comments, with a cursor for the next page of comments when there is one
+     * @throws EntityNotFoundException when the post cannot be found
+     */
+    @Transactional(readOnly = true)
+    public PostDetail getPost(Session session, UUID postId, Integer maxComments) {
+        Post post;
+        Optional<FeedEntry> cached = hotFeed.find(postId);
+        if (cached.isPresent()) {
+            post = cached.get().toPost(likeCounterBuffer.pendingPostLikes(postId), likedSetIndex.likesPost(session.accountId(), postId));
+        } else {
+            PostView row = postRepository.findViewById(postId)
+                .orElseThrow(() -> new EntityNotFoundException("Post not found"));
+            post = toPostsWithLikes(session.accountId(), List.of(row)).getFirst();
         }
 
-        return combined.stream()
-            .skip(indexInPage)
-            .limit(size)
-            .map(postJpa -> toPostWithLikes(sessionJpa.getAccount(), postJpa))
-            .toList();
+        CursorPage<Comment> comments = commentService.getCommentsByPost(session, postId, maxComments, null);
+        return new PostDetail(post, comments.items(), comments.nextCursor());
     }
 
     /**
-     * Create a new post authored by the account associated with the provided session cookie.
+     * Create a new post authored by the account associated with the given session.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * @param session the authenticated session of the current request
      * @param content content payload for the new post
      * @return created Post DTO including metadata and like/comment counts
-     * @throws InvalidCredentialsException when the session is invalid or missing
      */
-    public Post createPost(String cookie, Content content) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
-        PostJpa postJpa = PostJpa.create(sessionJpa.getAccount(), content);
+    public Post createPost(Session session, Content content) {
+        PostJpa postJpa = PostJpa.create(accountRepository.getReferenceById(session.accountId()), content);
 
         postJpa = postRepository.save(postJpa);
+        hotFeed.put(postJpa);
 
-        return toPostWithLikes(sessionJpa.getAccount(), postJpa);
+        return toPost(postJpa, postJpa.getLikeCount(), false);
     }
 
     /**
      * Edit an existing post if the requesting account is the author.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * @param session the authenticated session of the current request
      * @param postId id of the post to edit
      * @param content new content for the post
      * @return updated Post DTO
      * @throws EntityNotFoundException when the post cannot be found
      * @throws IllegalActionException when the requesting account is not the author
      */
-    public Post editPost(String cookie, UUID postId, Content content) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
-        PostJpa postJpa = postRepository.findById(postId)
+    public Post editPost(Session session, UUID postId, Content content) {
+        PostJpa postJpa = postRepository.findWithAuthorById(postId)
             .orElseThrow(() -> new EntityNotFoundException("Post not found"));
 
-        if (!postJpa.getAccount().getId().equals(sessionJpa.getAccount().getId())) {
+        if (!postJpa.getAccount().getId().equals(session.accountId())) {
             throw new IllegalActionException("Only the author can delete the post");
         }
 
         postJpa.setContent(content.content());
         postJpa.setUpdatedAt(LocalDateTime.now());
+        postJpa = postRepository.save(postJpa);
+        hotFeed.edit(postJpa);
 
-        return toPostWithLikes(sessionJpa.getAccount(), postRepository.save(postJpa));
+        return toPostWithLikes(session.accountId(), postJpa);
     }
 
     /**
      * Delete an existing post authored by the requesting account.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * @param session the authenticated session of the current request
      * @param postId id of the post to delete
      * @throws EntityNotFoundException when the post cannot be found
      * @throws IllegalActionException when the requesting account is not the author
      */
-    public void deletePost(String cookie, UUID postId) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
+    public void deletePost(Session session, UUID postId) {
         PostJpa postJpa = postRepository.findById(postId)
             .orElseThrow(() -> new EntityNotFoundException("Post not found"));
 
-        if (!postJpa.getAccount().getId().equals(sessionJpa.getAccount().getId())) {
+        if (!postJpa.getAccount().getId().equals(session.accountId())) {
             throw new IllegalActionException("Only the author can delete the post");
         }
 
-        List<CommentJpa> commentJpas = commentRepository.findCommentJpaByPostId(postId);
-        for (var comment : commentJpas) {
-            commentLikeRepository.deleteAllByComment(comment);
-        }
-        commentRepository.deleteAll(commentJpas);
-        postLikeRepository.deleteAllByPost(postJpa);
-        postRepository.delete(postJpa);
+        // One statement: likes, comments and comment likes go with the post through on delete cascade
+        postRepository.deleteAllByIdInBatch(List.of(postId));
+        hotFeed.remove(postId);
+        postStatsCache.remove(postId);
     }
 
     /**
      * Add a like from the current user to the specified post.
      *
-     * @param cookie raw Cookie header value used to validate the session
+     * <p>Liking a post twice is a no-op. The like row is written by {@link LikeIngestion}, grouped with other
+     * likes arriving at the same time, so no transaction or connection is held here while waiting for it.</p>
+     *
+     * @param session the authenticated session of the current request
      * @param postId id of the post to like
      * @return Post DTO reflecting the updated like count and whether the current user liked it
      * @throws EntityNotFoundException when the post cannot be found
      */
-    public Post likePost(String cookie, UUID postId) {
-        SessionJpa sessionJpa = authorizationService.validateSession(cookie);
-
-        PostJpa postJpa = postRepository.findById(postId)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Post likePost(Session session, UUID postId) {
+        PostJpa postJpa = postRepository.findWithAuthorById(postId)
             .orElseThrow(() -> new EntityNotFoundException("Post not found"));
 
+        likeIngestion.likePost(postId, session.accountId());
 
-        postLikeRepository.save(PostLikeJpa.create(postJpa, sessionJpa.getAccount()));
-
-        return toPostWithLikes(sessionJpa.getAccount(), postJpa);
+        // A new like is already in the pending count by the time likePost returns
+        return toPost(postJpa, likes(postJpa), true);
     }
 
     /**
-     * Compute stats for a post. Requires a valid session (quick validation).
+     * Add likes from the current user to several posts.
      *
-     * @param cookie raw Cookie header value used to validate the session
-     * @param postId id of the post to compute stats for
-     * @return PostStats DTO containing computed stat value
-     * @throws InvalidCredentialsException when the session cookie is invalid
-     * @throws EntityNotFoundException when the post cannot be found
+     * <p>The posts are loaded with one query and the likes written with one statement, so a batch costs the same
+     * round trips as a single like. Like {@link #likePost(Session, UUID)} no transaction is held while writing.</p>
+     *
+     * @param session the authenticated session of the current request
+     * @param postIds ids of the posts to like
+     * @return one result per id, in request order: 200 with the liked post, or 404 when the post does not exist
      */
-    public PostStats getPostStats(String cookie, UUID postId) {
-        if (!authorizationService.isValidSession(cookie)) {
-            throw new InvalidCredentialsException("Invalid session cookie");
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchItemResult<Post>> likePosts(Session session, List<UUID> postIds) {
+        Map<UUID, PostView> found = new HashMap<>();
+        for (PostView row : postRepository.findViewsByIds(new LinkedHashSet<>(postIds))) {
+            found.put(row.id(), row);
         }
 
-        PostJpa postJpa = postRepository.findById(postId)
-            .orElseThrow(() -> new EntityNotFoundException("Post not found"));
-
-        long postLikes = postLikeRepository.countByPost(postJpa);
-        long numberOfComments = commentRepository.countByPostId(postJpa.getId());
+        Set<UUID> missing = new HashSet<>();
+        if (!found.isEmpty()) {
+            missing.addAll(likeIngestion.likePosts(found.keySet(), session.accountId()));
+        }
 
-        return new PostStats(fastFibonacci(postLikes + numberOfComments + 10));
+        List<BatchItemResult<Post>> results = new ArrayList<>(postIds.size());
+        for (UUID postId : postIds) {
+            PostView row = found.get(postId);
+            if (row == null || missing.contains(postId)) {
+                results.add(BatchItemResult.failure(HttpStatus.NOT_FOUND.value(), "Post not found"));
+            } else {
+                // New likes are already in the pending count by the time likePosts returns
+                results.add(BatchItemResult.success(HttpStatus.OK.value(), toPost(row, true)));
+            }
+        }
+        return results;
     }
 
-    private long fastFibonacci(long n) {
-        if (n <= 1) {
-            return n;
-        }
+    /**
+     * Get stats for a post from the {@link PostStatsCache}. Cached stats are served without a transaction or a
+     * database connection.
+     *
+     * @param postId id of the post to get stats for
+     * @return PostStats DTO containing computed stat value
+     * @throws EntityNotFoundException when the post cannot be found
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostStats getPostStats(UUID postId) {
+        return postStatsCache.get(postId);
+    }
 
-        long previousTwo = 0;
-        long previousOne = 1;
-        long current = 0;
+    private Post toPostWithLikes(UUID accountId, PostJpa postJpa) {
+        boolean likedByCurrentUser = likedSetIndex.likesPost(accountId, postJpa.getId());
+        return toPost(postJpa, likes(postJpa), likedByCurrentUser);
+    }
 
-        // Build sequence iteratively from 2 up to n
-        for (long i = 2; i <= n; i++) {
+    /**
+     * Convert a page of post rows. Counts come from the rows plus pending likes, and whether the caller likes each
+     * post from the {@link LikedSetIndex}.
+     */
+    private List<Post> toPostsWithLikes(UUID accountId, List<PostView> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
 
-            // If the index itself is prime,
-            // we override the Fibonacci behavior and use i directly.
-            if (isPrime(i)) {
-                current = i;
-            } else {
-                // Otherwise compute modified Fibonacci normally
-                current = previousOne + previousTwo;
-            }
+        List<UUID> postIds = rows.stream().map(PostView::id).toList();
+        Set<UUID> liked = likedSetIndex.likedPostIds(accountId, postIds);
 
-            // Shift values forward for next iteration
-            previousTwo = previousOne;
-            previousOne = current;
+        List<Post> posts = new ArrayList<>(rows.size());
+        for (PostView row : rows) {
+            posts.add(toPost(row, liked.contains(row.id())));
         }
+        return posts;
+    }
 
-        return current;
+    /**
+     * Convert one post row; the count is the row's plus pending likes.
+     */
+    private Post toPost(PostView row, boolean likedByCurrentUser) {
+        return new Post(
+            row.id(),
+            row.author(),
+            row.content(),
+            row.likeCount() + likeCounterBuffer.pendingPostLikes(row.id()),
+            row.commentCount(),
+            row.createdAt(),
+            row.updatedAt(),
+            likedByCurrentUser
+        );
     }
 
-    private boolean isPrime(long num) {
-        if (num <= 1) {
-            return false;
-        }
-        if (num <= 3) {
-            return true;
-        }
-        if (num % 2 == 0 || num % 3 == 0) {
-            return false;
+    /**
+     * Convert a page served from memory. Counts come from the feed plus pending likes, and whether the caller likes
+     * each post from the {@link LikedSetIndex}.
+     */
+    private List<Post> overlayLikes(UUID accountId, List<FeedEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
         }
 
-        for (long i = 5; i * i <= num; i += 6) {
-            if (num % i == 0 || num % (i + 2) == 0) {
-                return false;
-            }
+        List<UUID> postIds = entries.stream().map(FeedEntry::getId).toList();
+        Set<UUID> liked = likedSetIndex.likedPostIds(accountId, postIds);
+
+        List<Post> posts = new ArrayList<>(entries.size());
+        for (FeedEntry entry : entries) {
+            posts.add(entry.toPost(likeCounterBuffer.pendingPostLikes(entry.getId()), liked.contains(entry.getId())));
         }
-        return true;
+        return posts;
+    }
+
+    /**
+     * The persisted like counter plus likes still waiting in the write-behind buffer.
+     */
+    private long likes(PostJpa postJpa) {
+        return postJpa.getLikeCount() + likeCounterBuffer.pendingPostLikes(postJpa.getId());
     }
 
-    private Post toPostWithLikes(AccountJpa accountJpa, PostJpa postJpa) {
-        long postLikes = postLikeRepository.countByPost(postJpa);
-        long numberOfComments = commentRepository.countByPostId(postJpa.getId());
-        boolean likedByCurrentUser = postLikeRepository.existsById(PostLikeJpa.create(postJpa, accountJpa).getId());
+    private static Post toPost(PostJpa postJpa, long postLikes, boolean likedByCurrentUser) {
         return new Post(
             postJpa.getId(),
             postJpa.getAccount().toAccount(),
             postJpa.getContent(),
             postLikes,
-            numberOfComments,
+            postJpa.getCommentCount(),
             postJpa.getCreatedAt(),
             postJpa.getUpdatedAt(),
             likedByCurrentUser
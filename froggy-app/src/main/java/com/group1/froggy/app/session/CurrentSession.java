@@ -0,0 +1,20 @@
+package com.group1.froggy.app.session;
+
+import io.swagger.v3.oas.annotations.Parameter;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a controller parameter of type {@link com.group1.froggy.api.account.Session} that should receive
+ * the authenticated session of the current request.
+ *
+ * <p>Resolved by {@link CurrentSessionArgumentResolver}. Requests without a valid session cookie are
+ * rejected with a 401 before the controller method runs. The parameter is hidden from the OpenAPI docs
+ * since clients only ever send the cookie.</p>
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Parameter(hidden = true)
+public @interface CurrentSession {
+}
@@ -0,0 +1,71 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.exceptions.InvalidCredentialsException;
+import com.group1.froggy.app.services.AuthorizationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Supplies {@link CurrentSession} parameters from the request's session cookie.
+ *
+ * <p>The cookie is parsed and validated at most once per request; the result is kept as a request
+ * attribute so any further lookups in the same request reuse it.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentSessionArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String SESSION_ATTRIBUTE = CurrentSessionArgumentResolver.class.getName() + ".session";
+
+    private final AuthorizationService authorizationService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentSession.class)
+            && Session.class.equals(parameter.getParameterType());
+    }
+
+    /**
+     * @throws InvalidCredentialsException when the cookie is missing, malformed, or the session is not valid
+     */
+    @Override
+    public Session resolveArgument(
+        @NonNull MethodParameter parameter,
+        ModelAndViewContainer mavContainer,
+        @NonNull NativeWebRequest webRequest,
+        WebDataBinderFactory binderFactory
+    ) {
+        if (webRequest.getAttribute(SESSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Session session) {
+            return session;
+        }
+
+        Session session = authorizationService.validateSession(parseSessionCookie(webRequest));
+        webRequest.setAttribute(SESSION_ATTRIBUTE, session, RequestAttributes.SCOPE_REQUEST);
+        return session;
+    }
+
+    /**
+     * Clients may split cookies over several Cookie headers, so check each of them.
+     */
+    private static Session parseSessionCookie(NativeWebRequest webRequest) {
+        String[] headers = webRequest.getHeaderValues(HttpHeaders.COOKIE);
+        if (headers != null) {
+            for (String header : headers) {
+                Session session = SessionCookieParser.parse(header);
+                if (session != null) {
+                    return session;
+                }
+            }
+        }
+        throw new InvalidCredentialsException("No session cookie found");
+    }
+}
@@ -0,0 +1,157 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.jpa.account.AccountJpa;
+import com.group1.froggy.jpa.account.session.SessionId;
+import com.group1.froggy.jpa.account.session.SessionJpa;
+import com.group1.froggy.jpa.account.session.SessionRepository;
+import com.group1.froggy.jpa.account.session.SessionTimestamps;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Default {@link SessionStore} backed by the session table.
+ *
+ * <p>Tokens are random values that can only be validated by a lookup, so validated sessions are kept
+ * in the {@link SessionCache}.</p>
+ *
+ * <p>Sessions expire after {@link SessionProperties.Expiry#idleTimeout()} without use or
+ * {@link SessionProperties.Expiry#absoluteTimeout()} after login. Use is recorded in {@code last_seen_at} when a
+ * session is loaded from the database, at most once per tenth of the idle timeout, so busy sessions do not cause a
+ * write per request. Expired rows are deleted by {@link SessionSweeper}.</p>
+ *
+ * <p>Each account holds at most {@link SessionProperties.Limits#maximumPerAccount()} sessions; see
+ * {@link SessionProperties.Limits} for reusing sessions on login.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "froggy.session", name = "mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseSessionStore implements SessionStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SessionRepository sessionRepository;
+    private final SessionCache sessionCache;
+    private final SessionProperties.Expiry expiry;
+    private final SessionProperties.Limits limits;
+    private final Duration touchInterval;
+
+    public DatabaseSessionStore(SessionRepository sessionRepository, SessionCache sessionCache, SessionProperties sessionProperties) {
+        this.sessionRepository = sessionRepository;
+        this.sessionCache = sessionCache;
+        this.expiry = sessionProperties.expiry();
+        this.limits = sessionProperties.limits();
+        this.touchInterval = expiry.idleTimeout().dividedBy(10);
+    }
+
+    @Override
+    @Transactional
+    public Session create(AccountJpa account) {
+        if (limits.reuseExisting()) {
+            Session existing = findMostRecentlyUsed(account.getId());
+            if (existing != null) {
+                return existing;
+            }
+        }
+
+        Session session = sessionRepository.save(SessionJpa.create(generateToken(), account)).toSession();
+        evictLeastRecentlyUsed(account.getId());
+        return session;
+    }
+
+    @Override
+    public Session find(Session session) {
+        return sessionCache.get(SessionJpa.createId(session.accountId(), session.token()), this::load);
+    }
+
+    @Override
+    public boolean revoke(Session session) {
+        if (!sessionRepository.sessionExists(session.accountId(), session.token())) {
+            return false;
+        }
+
+        SessionId sessionId = SessionJpa.createId(session.accountId(), session.token());
+        sessionRepository.deleteById(sessionId);
+        sessionCache.invalidate(sessionId);
+        return true;
+    }
+
+    @Override
+    public void revokeAll(UUID accountId) {
+        sessionRepository.deleteAllByIdAccountId(accountId);
+        sessionCache.invalidateAccount(accountId);
+    }
+
+    @Override
+    public Optional<Duration> timeToLive() {
+        return Optional.of(expiry.absoluteTimeout());
+    }
+
+    private Session findMostRecentlyUsed(UUID accountId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> tokens = sessionRepository.findActiveTokens(
+            accountId,
+            now.minus(expiry.idleTimeout()),
+            now.minus(expiry.absoluteTimeout()),
+            PageRequest.of(0, 1)
+        );
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        SessionId id = SessionJpa.createId(accountId, tokens.getFirst());
+        sessionRepository.updateLastSeenAt(id, now);
+        return new Session(accountId, id.getToken());
+    }
+
+    /**
+     * Delete the account's sessions beyond {@link SessionProperties.Limits#maximumPerAccount()}, least recently used
+     * first. Concurrent logins may briefly leave the account above the limit; the next login trims it again.
+     */
+    private void evictLeastRecentlyUsed(UUID accountId) {
+        List<String> tokens = sessionRepository.findTokensByRecentUse(accountId);
+        if (tokens.size() <= limits.maximumPerAccount()) {
+            return;
+        }
+
+        List<SessionId> evicted = tokens.subList(limits.maximumPerAccount(), tokens.size()).stream()
+            .map(token -> SessionJpa.createId(accountId, token))
+            .toList();
+        sessionRepository.deleteAllByIdInBatch(evicted);
+        evicted.forEach(sessionCache::invalidate);
+    }
+
+    private Session load(SessionId id) {
+        SessionTimestamps timestamps = sessionRepository.findTimestampsById(id).orElse(null);
+        if (timestamps == null) {
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (timestamps.getLastSeenAt().isBefore(now.minus(expiry.idleTimeout()))
+            || timestamps.getCreatedAt().isBefore(now.minus(expiry.absoluteTimeout()))) {
+            return null;
+        }
+
+        if (timestamps.getLastSeenAt().isBefore(now.minus(touchInterval))) {
+            sessionRepository.updateLastSeenAt(id, now);
+        }
+        return new Session(id.getAccountId(), id.getToken());
+    }
+
+    private static String generateToken() {
+        byte[] token = new byte[64];
+        RANDOM.nextBytes(token);
+        return Base64.getEncoder().encodeToString(token);
+    }
+}
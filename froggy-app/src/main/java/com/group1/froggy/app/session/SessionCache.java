@@ -0,0 +1,83 @@
+package com.group1.froggy.app.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.jpa.account.session.SessionId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of sessions that have already been validated against the database.
+ *
+ * <p>Only valid sessions are cached; lookups for unknown tokens always fall through to the loader so
+ * that guessing tokens cannot fill the cache. Hit and miss rates are published as the {@code cache.*}
+ * metrics tagged {@code cache=sessions}.</p>
+ */
+@Component
+public class SessionCache {
+
+    public static final String CACHE_NAME = "sessions";
+
+    private final Cache<SessionId, Session> sessions;
+
+    public SessionCache(SessionProperties sessionProperties, MeterRegistry meterRegistry) {
+        this.sessions = Caffeine.newBuilder()
+            .maximumSize(sessionProperties.cache().maximumSize())
+            .expireAfterWrite(sessionProperties.cache().timeToLive())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached session for the id, loading it on a miss.
+     *
+     * @param id the session id to look up
+     * @param loader called on a miss; returns null when the session does not exist
+     * @return the session, or null when the loader could not find it
+     */
+    public Session get(SessionId id, Function<SessionId, Session> loader) {
+        return sessions.get(id, loader);
+    }
+
+    /**
+     * Remove a single session from the cache.
+     *
+     * <p>The entry is removed immediately and, when called inside a transaction, again after commit so a
+     * concurrent request cannot re-cache the session from the not yet committed delete.</p>
+     *
+     * @param id the session id to remove
+     */
+    public void invalidate(SessionId id) {
+        runNowAndAfterCommit(() -> sessions.invalidate(id));
+    }
+
+    /**
+     * Remove every cached session belonging to an account.
+     *
+     * @param accountId the account whose sessions should be removed
+     */
+    public void invalidateAccount(UUID accountId) {
+        runNowAndAfterCommit(() -> sessions.asMap().keySet().removeIf(id -> id.getAccountId().equals(accountId)));
+    }
+
+    private static void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.api.account.Session;
+
+import java.util.UUID;
+
+import static com.group1.froggy.app.services.AuthorizationService.SESSION_COOKIE;
+
+/**
+ * Extracts the session from a raw {@code Cookie} header.
+ *
+ * <p>The header is scanned once, left to right, by index. No regular expressions, splits or
+ * intermediate strings are used: the account id is decoded straight from the hex digits and the only
+ * allocations are the token string, the {@link UUID} and the resulting {@link Session}.</p>
+ *
+ * <p>The session cookie value has the form {@code <accountId>:<token>}.</p>
+ */
+public final class SessionCookieParser {
+
+    private static final int UUID_LENGTH = 36;
+
+    private SessionCookieParser() { }
+
+    /**
+     * @param header raw Cookie header value, may be null
+     * @return the session named by the first {@code session} cookie, or null when there is none or it is malformed
+     */
+    public static Session parse(String header) {
+        if (header == null) {
+            return null;
+        }
+
+        int length = header.length();
+        int position = 0;
+        while (position < length) {
+            int pairEnd = header.indexOf(';', position);
+            if (pairEnd < 0) {
+                pairEnd = length;
+            }
+
+            int nameStart = skipWhitespace(header, position, pairEnd);
+            int equals = header.indexOf('=', nameStart);
+            if (equals >= 0 && equals < pairEnd && isSessionName(header, nameStart, equals)) {
+                return parseValue(header, skipWhitespace(header, equals + 1, pairEnd), trimEnd(header, equals + 1, pairEnd));
+            }
+
+            position = pairEnd + 1;
+        }
+        return null;
+    }
+
+    private static boolean isSessionName(String header, int start, int end) {
+        int nameEnd = trimEnd(header, start, end);
+        return nameEnd - start == SESSION_COOKIE.length()
+            && header.regionMatches(start, SESSION_COOKIE, 0, SESSION_COOKIE.length());
+    }
+
+    private static Session parseValue(String header, int start, int end) {
+        int separator = start + UUID_LENGTH;
+        if (separator + 1 >= end || header.charAt(separator) != ':') {
+            return null;
+        }
+
+        UUID accountId = parseUuid(header, start);
+        if (accountId == null) {
+            return null;
+        }
+        return new Session(accountId, header.substring(separator + 1, end));
+    }
+
+    /**
+     * Decode the canonical 8-4-4-4-12 form starting at {@code start}, or return null when it is not valid hex.
+     */
+    private static UUID parseUuid(String header, int start) {
+        long mostSignificant = 0;
+        long leastSignificant = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = header.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                return null;
+            }
+            if (i < 18) {
+                mostSignificant = (mostSignificant << 4) | digit;
+            } else {
+                leastSignificant = (leastSignificant << 4) | digit;
+            }
+        }
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static int skipWhitespace(String header, int start, int end) {
+        while (start < end && header.charAt(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String header, int start, int end) {
+        while (end > start && header.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,56 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.jpa.account.AccountJpa;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues, validates and revokes login sessions.
+ *
+ * <p>The implementation is selected with {@code froggy.session.mode}; see
+ * {@link com.group1.froggy.app.config.SessionProperties.Mode}.</p>
+ */
+public interface SessionStore {
+
+    /**
+     * Issue a session for an authenticated account.
+     *
+     * <p>Depending on configuration this may hand out one of the account's existing sessions, or
+     * end the account's least recently used sessions to stay within a per-account limit.</p>
+     *
+     * @param account the account that has just logged in
+     * @return the session to hand to the client
+     */
+    Session create(AccountJpa account);
+
+    /**
+     * Validate a session parsed from a cookie.
+     *
+     * @param session the session presented by the client
+     * @return the session when it is valid, otherwise null
+     */
+    Session find(Session session);
+
+    /**
+     * Revoke a single session.
+     *
+     * @param session the session to revoke
+     * @return false when the session was not valid to begin with
+     */
+    boolean revoke(Session session);
+
+    /**
+     * Revoke every session belonging to an account.
+     *
+     * @param accountId the account to log out everywhere
+     */
+    void revokeAll(UUID accountId);
+
+    /**
+     * @return how long a new session remains valid, or empty when sessions do not expire
+     */
+    Optional<Duration> timeToLive();
+}
@@ -0,0 +1,25 @@
+package com.group1.froggy.app.session;
+
+import lombok.RequiredArgsConstructor;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job running the {@link SessionSweeper}.
+ *
+ * <p>The job is stored in the clustered JDBC job store, so only one instance runs it at a time even when several
+ * application instances share the database.</p>
+ */
+@DisallowConcurrentExecution
+@RequiredArgsConstructor
+public class SessionSweepJob extends QuartzJobBean {
+
+    private final SessionSweeper sessionSweeper;
+
+    @Override
+    protected void executeInternal(@NonNull JobExecutionContext context) {
+        sessionSweeper.sweep();
+    }
+}
@@ -0,0 +1,74 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.jpa.account.session.SessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired sessions from the session table.
+ *
+ * <p>Rows are deleted in batches of {@link SessionProperties.Sweeper#batchSize()}, each in its own transaction, so a
+ * large backlog never holds locks or a connection for long. Each run is capped at
+ * {@link SessionProperties.Sweeper#maximumBatchesPerRun()} batches. Results are published as
+ * {@code froggy.session.sweeper.purged} and {@code froggy.session.sweeper.duration}.</p>
+ *
+ * <p>Scheduled by {@link SessionSweepJob}.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "froggy.session", name = "mode", havingValue = "database", matchIfMissing = true)
+public class SessionSweeper {
+
+    private final SessionRepository sessionRepository;
+    private final SessionProperties.Expiry expiry;
+    private final SessionProperties.Sweeper sweeper;
+    private final Counter purged;
+    private final Timer duration;
+
+    public SessionSweeper(SessionRepository sessionRepository, SessionProperties sessionProperties, MeterRegistry meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.expiry = sessionProperties.expiry();
+        this.sweeper = sessionProperties.sweeper();
+        this.purged = Counter.builder("froggy.session.sweeper.purged")
+            .description("Expired sessions deleted by the sweeper")
+            .register(meterRegistry);
+        this.duration = Timer.builder("froggy.session.sweeper.duration")
+            .description("Time taken by a sweeper run")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Delete sessions that have expired as of now.
+     *
+     * @return the number of sessions deleted
+     */
+    public int sweep() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime idleCutoff = now.minus(expiry.idleTimeout());
+        LocalDateTime absoluteCutoff = now.minus(expiry.absoluteTimeout());
+
+        int total = 0;
+        for (int batch = 0; batch < sweeper.maximumBatchesPerRun(); batch++) {
+            int deleted = sessionRepository.deleteExpiredBatch(idleCutoff, absoluteCutoff, sweeper.batchSize());
+            total += deleted;
+            if (deleted < sweeper.batchSize()) {
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        purged.increment(total);
+        duration.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Session sweep deleted {} expired sessions in {} ms", total, elapsed / 1_000_000);
+        return total;
+    }
+}
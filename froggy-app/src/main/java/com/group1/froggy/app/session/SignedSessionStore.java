@@ -0,0 +1,258 @@
+package com.group1.froggy.app.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.app.exceptions.ServiceOverloadedException;
+import com.group1.froggy.jpa.account.AccountJpa;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * {@link SessionStore} that issues self-contained, HMAC-SHA256 signed tokens so sessions can be
+ * validated without touching the database.
+ *
+ * <p>A token has the form {@code <keyId>.<payload>.<signature>}, where the payload holds the account id,
+ * issued-at and expiry timestamps and a random token id. The signature covers the key id and payload.</p>
+ *
+ * <p>Logging out remembers the token id until the token would have expired anyway, and logging out
+ * everywhere remembers the time of the request per account. Both lists live in memory on the instance
+ * that handled the logout, so other instances keep accepting the token until it expires.</p>
+ *
+ * <p>Revocations are only ever dropped when they expire, never to make room. Once the token list is full a
+ * logout revokes every token of the account issued so far instead, and once the account list is full logging out
+ * everywhere is refused with a {@link ServiceOverloadedException}, so a logged out token is never accepted
+ * again.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "froggy.session", name = "mode", havingValue = "signed")
+public class SignedSessionStore implements SessionStore {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final int MINIMUM_KEY_BYTES = 32;
+
+    private static final byte VERSION = 1;
+    private static final int TOKEN_ID_BYTES = 16;
+    private static final int PAYLOAD_BYTES = 1 + 16 + 8 + 8 + TOKEN_ID_BYTES;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Clock clock;
+    private final Duration timeToLive;
+    private final String activeKeyId;
+    private final Map<String, ThreadLocal<Mac>> macs = new HashMap<>();
+
+    private final Cache<String, Instant> revokedTokens;
+    private final Cache<UUID, Instant> revokedAccounts;
+    private final long maximumRevokedTokens;
+    private final long maximumRevokedAccounts;
+
+    @Autowired
+    public SignedSessionStore(SessionProperties sessionProperties) {
+        this(sessionProperties.signed(), Clock.systemUTC());
+    }
+
+    SignedSessionStore(SessionProperties.Signed properties, Clock clock) {
+        this.clock = clock;
+        this.timeToLive = properties.timeToLive();
+        this.activeKeyId = properties.activeKeyId();
+
+        Map<String, String> keys = properties.keys() == null ? Map.of() : properties.keys();
+        if (activeKeyId == null || !keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("froggy.session.signed.active-key-id must name one of froggy.session.signed.keys");
+        }
+        keys.forEach((keyId, secret) -> macs.put(keyId, createMac(keyId, secret)));
+
+        this.maximumRevokedTokens = properties.maximumRevokedTokens();
+        this.maximumRevokedAccounts = properties.maximumRevokedAccounts();
+        this.revokedTokens = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Instant>() {
+                @Override
+                public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+                    return Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(tokenId, expiresAt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+        this.revokedAccounts = Caffeine.newBuilder()
+            .expireAfterWrite(timeToLive)
+            .build();
+    }
+
+    @Override
+    public Session create(AccountJpa account) {
+        Instant issuedAt = clock.instant();
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        RANDOM.nextBytes(tokenId);
+
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+            .put(VERSION)
+            .putLong(account.getId().getMostSignificantBits())
+            .putLong(account.getId().getLeastSignificantBits())
+            .putLong(issuedAt.toEpochMilli())
+            .putLong(issuedAt.plus(timeToLive).toEpochMilli())
+            .put(tokenId);
+
+        String signed = activeKeyId + "." + ENCODER.encodeToString(payload.array());
+        return new Session(account.getId(), signed + "." + ENCODER.encodeToString(sign(activeKeyId, signed)));
+    }
+
+    @Override
+    public Session find(Session session) {
+        Claims claims = verify(session.token());
+        if (claims == null || !claims.accountId().equals(session.accountId())) {
+            return null;
+        }
+        if (!clock.instant().isBefore(claims.expiresAt())) {
+            return null;
+        }
+        if (revokedTokens.getIfPresent(claims.tokenId()) != null) {
+            return null;
+        }
+        Instant revokedBefore = revokedAccounts.getIfPresent(claims.accountId());
+        if (revokedBefore != null && !claims.issuedAt().isAfter(revokedBefore)) {
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public boolean revoke(Session session) {
+        if (find(session) == null) {
+            return false;
+        }
+        Claims claims = verify(session.token());
+        if (isFull(revokedTokens, maximumRevokedTokens)) {
+            // Fail closed: log the account out everywhere rather than forget a revocation
+            revokeAll(claims.accountId());
+        } else {
+            revokedTokens.put(claims.tokenId(), claims.expiresAt());
+        }
+        return true;
+    }
+
+    /**
+     * @throws ServiceOverloadedException when the account list is full and the account is not on it yet
+     */
+    @Override
+    public void revokeAll(UUID accountId) {
+        if (revokedAccounts.getIfPresent(accountId) == null && isFull(revokedAccounts, maximumRevokedAccounts)) {
+            throw new ServiceOverloadedException("Too many accounts logged out everywhere, try again later");
+        }
+        revokedAccounts.put(accountId, clock.instant());
+    }
+
+    @Override
+    public Optional<Duration> timeToLive() {
+        return Optional.of(timeToLive);
+    }
+
+    /**
+     * Expired entries still count towards the estimated size until Caffeine cleans them up, so clean up before
+     * concluding the list is full.
+     */
+    private static boolean isFull(Cache<?, ?> revoked, long maximum) {
+        if (revoked.estimatedSize() < maximum) {
+            return false;
+        }
+        revoked.cleanUp();
+        return revoked.estimatedSize() >= maximum;
+    }
+
+    private Claims verify(String token) {
+        int keyEnd = token.indexOf('.');
+        int payloadEnd = token.lastIndexOf('.');
+        if (keyEnd <= 0 || payloadEnd <= keyEnd) {
+            return null;
+        }
+
+        String keyId = token.substring(0, keyEnd);
+        if (!macs.containsKey(keyId)) {
+            return null;
+        }
+
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = DECODER.decode(token.substring(payloadEnd + 1));
+            payload = DECODER.decode(token.substring(keyEnd + 1, payloadEnd));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(signature, sign(keyId, token.substring(0, payloadEnd)))) {
+            return null;
+        }
+        if (payload.length != PAYLOAD_BYTES || payload[0] != VERSION) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, PAYLOAD_BYTES - 1);
+        UUID accountId = new UUID(buffer.getLong(), buffer.getLong());
+        Instant issuedAt = Instant.ofEpochMilli(buffer.getLong());
+        Instant expiresAt = Instant.ofEpochMilli(buffer.getLong());
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        buffer.get(tokenId);
+
+        return new Claims(accountId, issuedAt, expiresAt, ENCODER.encodeToString(tokenId));
+    }
+
+    private byte[] sign(String keyId, String value) {
+        return macs.get(keyId).get().doFinal(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static ThreadLocal<Mac> createMac(String keyId, String secret) {
+        if (!KEY_ID.matcher(keyId).matches()) {
+            throw new IllegalStateException("Session signing key id '" + keyId + "' may only contain letters, digits, '-' and '_'");
+        }
+        byte[] key = Base64.getDecoder().decode(secret);
+        if (key.length < MINIMUM_KEY_BYTES) {
+            throw new IllegalStateException("Session signing key '" + keyId + "' must be at least " + MINIMUM_KEY_BYTES + " bytes");
+        }
+
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Unable to initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    private record Claims(UUID accountId, Instant issuedAt, Instant expiresAt, String tokenId) { }
+}
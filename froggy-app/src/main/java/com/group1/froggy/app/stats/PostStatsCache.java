@@ -0,0 +1,207 @@
+package com.group1.froggy.app.stats;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group1.froggy.api.post.PostStats;
+import com.group1.froggy.app.config.PostStatsProperties;
+import com.group1.froggy.app.counters.LikeCounterBuffer;
+import com.group1.froggy.jpa.post.PostEngagement;
+import com.group1.froggy.jpa.post.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post stats kept in memory, so {@code GET /post/{postId}/stats} is a single map lookup.
+ *
+ * <p>Stats are computed on the first request for a post and kept in a Caffeine cache. Likes and comments mark
+ * the post as changed; a background thread recomputes changed posts every
+ * {@link PostStatsProperties#maximumStaleness()}, reading the counters of up to
+ * {@link PostStatsProperties#batchSize()} posts per query. A burst of likes on one post between two runs costs a
+ * single recompute. Only posts whose stats are cached are tracked.</p>
+ *
+ * <p>Entries expire {@link PostStatsProperties#timeToLive()} after they were last computed, which picks up changes
+ * made by other instances and by counter repair. Hit rates are published as the {@code cache.*} metrics tagged
+ * {@code cache=post-stats}, recomputes as {@code froggy.post.stats.recomputed}.</p>
+ *
+ * <p>With {@link PostStatsProperties#enabled()} false stats are computed on every request.</p>
+ */
+@Slf4j
+@Component
+public class PostStatsCache implements DisposableBean {
+
+    public static final String CACHE_NAME = "post-stats";
+
+    private static final String EXECUTOR_NAME = "post-stats-refresh";
+
+    private final PostRepository postRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final TrendingScores trendingScores;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Cache<UUID, PostStats> stats;
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executor;
+    private final Counter recomputed;
+
+    public PostStatsCache(
+        PostRepository postRepository,
+        LikeCounterBuffer likeCounterBuffer,
+        TrendingScores trendingScores,
+        PlatformTransactionManager transactionManager,
+        PostStatsProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.postRepository = postRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.trendingScores = trendingScores;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = properties.enabled();
+        this.batchSize = properties.batchSize();
+        this.stats = Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.timeToLive())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, stats, CACHE_NAME);
+
+        this.recomputed = Counter.builder("froggy.post.stats.recomputed")
+            .description("Cached post stats recomputed after a like or comment")
+            .register(meterRegistry);
+        Gauge.builder("froggy.post.stats.pending", changed, Set::size)
+            .description("Cached post stats waiting to be recomputed")
+            .register(meterRegistry);
+
+        if (enabled) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(EXECUTOR_NAME).daemon().factory());
+            long interval = properties.maximumStaleness().toMillis();
+            executor.scheduleWithFixedDelay(this::recomputeQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * @param postId id of the post
+     * @return the post's stats, computed now if they are not cached
+     * @throws EntityNotFoundException when the post does not exist
+     */
+    public PostStats get(UUID postId) {
+        if (!enabled) {
+            return load(postId);
+        }
+        return stats.get(postId, this::load);
+    }
+
+    /**
+     * Mark a post's stats for recompute once the current transaction commits, because its likes or comments
+     * changed.
+     */
+    public void changed(UUID postId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            // Not a recorded lookup, so writes do not skew the hit rate
+            if (stats.asMap().containsKey(postId)) {
+                changed.add(postId);
+            }
+        });
+    }
+
+    /**
+     * Drop a post's stats once the current transaction commits, because the post was deleted.
+     */
+    public void remove(UUID postId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            changed.remove(postId);
+            stats.invalidate(postId);
+        });
+    }
+
+    /**
+     * Recompute the stats of every post marked as changed.
+     *
+     * @return the number of posts recomputed
+     */
+    public int recompute() {
+        List<UUID> postIds = new ArrayList<>(changed.size());
+        for (Iterator<UUID> it = changed.iterator(); it.hasNext(); ) {
+            postIds.add(it.next());
+            it.remove();
+        }
+
+        for (int from = 0; from < postIds.size(); from += batchSize) {
+            List<UUID> batch = postIds.subList(from, Math.min(postIds.size(), from + batchSize));
+            List<PostEngagement> rows = transactionTemplate.execute(status -> postRepository.findEngagementByIdIn(batch));
+
+            Set<UUID> missing = new HashSet<>(batch);
+            for (PostEngagement row : Objects.requireNonNull(rows)) {
+                missing.remove(row.id());
+                stats.asMap().replace(row.id(), toStats(row));
+            }
+            stats.invalidateAll(missing);
+        }
+        recomputed.increment(postIds.size());
+        return postIds.size();
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private PostStats load(UUID postId) {
+        return postRepository.findEngagementById(postId)
+            .map(this::toStats)
+            .orElseThrow(() -> new EntityNotFoundException("Post not found"));
+    }
+
+    private PostStats toStats(PostEngagement engagement) {
+        long likes = engagement.likeCount() + likeCounterBuffer.pendingPostLikes(engagement.id());
+        return new PostStats(trendingScores.score(likes + engagement.commentCount() + 10));
+    }
+
+    private void recomputeQuietly() {
+        try {
+            recompute();
+        } catch (RuntimeException e) {
+            log.warn("Post stats recompute failed, cached stats expire on their own", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
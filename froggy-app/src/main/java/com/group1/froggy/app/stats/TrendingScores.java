@@ -0,0 +1,185 @@
+package com.group1.froggy.app.stats;
+
+import com.group1.froggy.app.config.TrendingScoreProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Computes trending scores from a precomputed table.
+ *
+ * <p>The score for index {@code n} is a modified Fibonacci sequence: a prime index scores itself, every other index
+ * scores the sum of the two before it. Scores are kept in a table next to a bitset of the primes, which are found
+ * with a segmented sieve. A lookup inside the table is a single array read.</p>
+ *
+ * <p>The table is immutable once published. When a larger index arrives, the caller builds a bigger copy from the
+ * current one and swaps it in with a compare-and-set, so readers never wait. Two callers growing at once may both
+ * do the work; the loser retries from the winner's table. The table stops growing at
+ * {@link TrendingScoreProperties#maximumMemoSize()}; larger indexes continue the sequence from its end, still
+ * sieving instead of testing each index for primality. Past the square of the table's last index the primes
+ * needed for that sieve are found first, with the same sieve, and thrown away afterwards.</p>
+ */
+@Component
+public class TrendingScores {
+
+    private static final int SEGMENT_SIZE = 1 << 15;
+
+    /** Scores for 0 to 3, the smallest table the sieve can extend. */
+    private static final Table SEED = new Table(3, new long[] { 0, 1, 2, 3 }, new long[] { 0b1100 });
+
+    private final AtomicReference<Table> table;
+    private final int maximumIndex;
+
+    public TrendingScores(TrendingScoreProperties properties, MeterRegistry meterRegistry) {
+        this.maximumIndex = Math.max(SEED.limit(), properties.maximumMemoSize());
+        Table initial = SEED;
+        if (properties.initialMemoSize() > SEED.limit()) {
+            initial = grow(SEED, Math.min(properties.initialMemoSize(), maximumIndex));
+        }
+        this.table = new AtomicReference<>(initial);
+
+        Gauge.builder("froggy.trending.memo.size", () -> table.get().limit())
+            .description("Highest index with a precomputed trending score")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param n index into the sequence, for a post the sum of its likes and comments plus ten
+     * @return the score at that index; like the sequence itself it wraps around on overflow
+     */
+    public long score(long n) {
+        if (n <= 1) {
+            return n;
+        }
+
+        Table current = tableCovering((int) Math.min(n, maximumIndex));
+        if (n <= current.limit()) {
+            return current.scores()[(int) n];
+        }
+        return continueFrom(current, n);
+    }
+
+    private Table tableCovering(int index) {
+        Table current = table.get();
+        while (current.limit() < index) {
+            int target = (int) Math.max(index, Math.min(maximumIndex, 2L * current.limit()));
+            Table grown = grow(current, target);
+            if (table.compareAndSet(current, grown)) {
+                return grown;
+            }
+            current = table.get();
+        }
+        return current;
+    }
+
+    /**
+     * Copy a table and extend it up to {@code target}, one sieve segment at a time. A segment never ends past the
+     * square of the last prime already known, so the primes needed to sieve it are always in the bitset.
+     */
+    private static Table grow(Table from, int target) {
+        long[] scores = Arrays.copyOf(from.scores(), target + 1);
+        long[] primes = Arrays.copyOf(from.primes(), (target >> 6) + 1);
+        long[] composite = new long[SEGMENT_SIZE >> 6];
+
+        long low = from.limit() + 1L;
+        while (low <= target) {
+            long high = segmentEnd(low, target, low - 1);
+            sieve(primes, low, high, composite);
+            for (int i = (int) low; i <= high; i++) {
+                if (isSet(composite, i - low)) {
+                    scores[i] = scores[i - 1] + scores[i - 2];
+                } else {
+                    primes[i >> 6] |= 1L << i;
+                    scores[i] = i;
+                }
+            }
+            low = high + 1;
+        }
+        return new Table(target, scores, primes);
+    }
+
+    /**
+     * Walk the sequence past the end of a full table without storing it.
+     */
+    private static long continueFrom(Table table, long n) {
+        // One past the square root, so the primes known reach far enough to sieve every index up to n
+        long primeLimit = Math.max(table.limit(), (long) Math.sqrt((double) n) + 1);
+        long[] primes = primesUpTo(table, primeLimit);
+
+        long previousTwo = table.scores()[table.limit() - 1];
+        long previousOne = table.scores()[table.limit()];
+        long[] composite = new long[SEGMENT_SIZE >> 6];
+
+        long low = table.limit() + 1L;
+        while (low <= n) {
+            long high = segmentEnd(low, n, primeLimit);
+            sieve(primes, low, high, composite);
+            for (long i = low; i <= high; i++) {
+                long current = isSet(composite, i - low) ? previousOne + previousTwo : i;
+                previousTwo = previousOne;
+                previousOne = current;
+            }
+            low = high + 1;
+        }
+        return previousOne;
+    }
+
+    /**
+     * The prime bitset of a table, extended by sieving when {@code limit} lies past the table's end.
+     */
+    private static long[] primesUpTo(Table table, long limit) {
+        if (limit <= table.limit()) {
+            return table.primes();
+        }
+
+        long[] primes = Arrays.copyOf(table.primes(), (int) (limit >> 6) + 1);
+        long[] composite = new long[SEGMENT_SIZE >> 6];
+        long low = table.limit() + 1L;
+        while (low <= limit) {
+            long high = segmentEnd(low, limit, low - 1);
+            sieve(primes, low, high, composite);
+            for (long i = low; i <= high; i++) {
+                if (!isSet(composite, i - low)) {
+                    primes[(int) (i >> 6)] |= 1L << i;
+                }
+            }
+            low = high + 1;
+        }
+        return primes;
+    }
+
+    private static long segmentEnd(long low, long target, long primeLimit) {
+        return Math.min(Math.min(target, low + SEGMENT_SIZE - 1), primeLimit * primeLimit);
+    }
+
+    /**
+     * Mark the composites in [low, high] using the primes in the bitset up to the square root of high.
+     */
+    private static void sieve(long[] primes, long low, long high, long[] composite) {
+        Arrays.fill(composite, 0L);
+        for (long p = 2; p * p <= high; p++) {
+            if (!isSet(primes, p)) {
+                continue;
+            }
+            long start = Math.max(p * p, (low + p - 1) / p * p);
+            for (long multiple = start; multiple <= high; multiple += p) {
+                long offset = multiple - low;
+                composite[(int) (offset >> 6)] |= 1L << offset;
+            }
+        }
+    }
+
+    private static boolean isSet(long[] bits, long index) {
+        return (bits[(int) (index >> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * @param limit highest index in the table
+     * @param scores score for every index from 0 to limit
+     * @param primes bit i is set when i is prime, for i up to limit
+     */
+    private record Table(int limit, long[] scores, long[] primes) { }
+}
@@ -0,0 +1,84 @@
+package com.group1.froggy.app.counters;
+
+import com.group1.froggy.app.config.CounterRepairProperties;
+import com.group1.froggy.jpa.post.PostRepository;
+import com.group1.froggy.jpa.post.comment.CommentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CounterRepairTest {
+
+    private static final UUID START = new UUID(0, 0);
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private LikeCounterBuffer likeCounterBuffer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CounterRepair counterRepair;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        counterRepair = new CounterRepair(postRepository, commentRepository, likeCounterBuffer, new CounterRepairProperties(true, Duration.ofHours(1), 2), meterRegistry);
+    }
+
+    @Test
+    void repair_WalksTablesInBatches() {
+        UUID post1 = UUID.randomUUID();
+        UUID post2 = UUID.randomUUID();
+        UUID post3 = UUID.randomUUID();
+        UUID comment1 = UUID.randomUUID();
+
+        Map<UUID, Long> pending = Map.of(post3, 4L);
+        when(likeCounterBuffer.repairPostCounters(any(), any())).thenAnswer(invocation ->
+            invocation.<ToIntFunction<Map<UUID, Long>>>getArgument(1)
+                .applyAsInt(invocation.<List<UUID>>getArgument(0).contains(post3) ? pending : Map.of()));
+        when(likeCounterBuffer.repairCommentCounters(any(), any())).thenAnswer(invocation ->
+            invocation.<ToIntFunction<Map<UUID, Long>>>getArgument(1).applyAsInt(Map.of()));
+        when(postRepository.findIdsAfter(START, PageRequest.of(0, 2))).thenReturn(List.of(post1, post2));
+        when(postRepository.findIdsAfter(post2, PageRequest.of(0, 2))).thenReturn(List.of(post3));
+        when(postRepository.repairCounters(List.of(post1, post2), Map.of())).thenReturn(1);
+        when(postRepository.repairCounters(List.of(post3), pending)).thenReturn(1);
+        when(commentRepository.findIdsAfter(START, PageRequest.of(0, 2))).thenReturn(List.of(comment1));
+        when(commentRepository.repairCounters(List.of(comment1), Map.of())).thenReturn(0);
+
+        assertEquals(2, counterRepair.repair());
+
+        assertEquals(2, meterRegistry.get("froggy.counters.repaired").tag("table", "post").counter().count());
+        assertEquals(0, meterRegistry.get("froggy.counters.repaired").tag("table", "comment").counter().count());
+        assertEquals(1, meterRegistry.get("froggy.counters.repair.duration").timer().count());
+    }
+
+    @Test
+    void repair_EmptyTables() {
+        when(postRepository.findIdsAfter(START, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(commentRepository.findIdsAfter(START, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        assertEquals(0, counterRepair.repair());
+
+        verify(postRepository, never()).repairCounters(any(), any());
+        verify(commentRepository, never()).repairCounters(any(), any());
+    }
+}
@@ -0,0 +1,165 @@
+package com.group1.froggy.app.counters;
+
+import com.group1.froggy.app.config.LikeCounterProperties;
+import com.group1.froggy.app.feed.HotFeed;
+import com.group1.froggy.jpa.post.PostRepository;
+import com.group1.froggy.jpa.post.comment.CommentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeCounterBufferTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private HotFeed hotFeed;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LikeCounterBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        buffer.destroy();
+    }
+
+    @Test
+    void recordPostLike_PendingUntilFlushed() {
+        buffer = buffer(true, 1000);
+        UUID postId = UUID.randomUUID();
+        UUID commentId = UUID.randomUUID();
+
+        buffer.recordPostLike(postId);
+        buffer.recordPostLike(postId);
+        buffer.recordCommentLike(commentId);
+
+        assertEquals(2, buffer.pendingPostLikes(postId));
+        assertEquals(1, buffer.pendingCommentLikes(commentId));
+        verify(postRepository, never()).addToLikeCount(any(), anyLong());
+
+        assertEquals(2, buffer.flush());
+
+        verify(postRepository).addToLikeCounts(Map.of(postId, 2L));
+        verify(hotFeed).addLikes(Map.of(postId, 2L));
+        verify(commentRepository).addToLikeCounts(Map.of(commentId, 1L));
+        assertEquals(0, buffer.pendingPostLikes(postId));
+        assertEquals(2, meterRegistry.get("froggy.like.counters.flushed").counter().count());
+    }
+
+    @Test
+    void repairPostCounters_PassesPendingLikesThenFlushAddsThem() {
+        buffer = buffer(true, 1000);
+        UUID postId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+
+        buffer.recordPostLike(postId);
+        buffer.recordPostLike(postId);
+
+        assertEquals(1, buffer.repairPostCounters(List.of(postId, otherId), pending -> {
+            assertEquals(Map.of(postId, 2L), pending);
+            return 1;
+        }));
+        assertEquals(2, buffer.pendingPostLikes(postId));
+
+        buffer.flush();
+
+        verify(postRepository).addToLikeCounts(Map.of(postId, 2L));
+    }
+
+    @Test
+    void repairCommentCounters_NothingPendingWhenWriteThrough() {
+        buffer = buffer(false, 1000);
+        UUID commentId = UUID.randomUUID();
+
+        assertEquals(0, buffer.repairCommentCounters(List.of(commentId), pending -> pending.size()));
+    }
+
+    @Test
+    void recordPostLike_WaitsForCommit() {
+        buffer = buffer(true, 1000);
+        UUID postId = UUID.randomUUID();
+
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.recordPostLike(postId);
+
+        assertEquals(0, buffer.pendingPostLikes(postId));
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertEquals(1, buffer.pendingPostLikes(postId));
+    }
+
+    @Test
+    void flush_FailureKeepsIncrements() {
+        buffer = buffer(true, 1000);
+        UUID postId = UUID.randomUUID();
+        buffer.recordPostLike(postId);
+        doThrow(new IllegalStateException("database down")).when(postRepository).addToLikeCounts(any());
+
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+
+        assertEquals(1, buffer.pendingPostLikes(postId));
+    }
+
+    @Test
+    void recordPostLike_ThresholdTriggersFlush() {
+        buffer = buffer(true, 2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        buffer.recordPostLike(first);
+        buffer.recordPostLike(second);
+
+        verify(postRepository, timeout(5000)).addToLikeCounts(Map.of(first, 1L, second, 1L));
+    }
+
+    @Test
+    void recordPostLike_WriteThroughWhenDisabled() {
+        buffer = buffer(false, 1000);
+        UUID postId = UUID.randomUUID();
+
+        buffer.recordPostLike(postId);
+
+        verify(postRepository).addToLikeCount(postId, 1);
+        verify(hotFeed).addLikes(Map.of(postId, 1L));
+        assertEquals(0, buffer.pendingPostLikes(postId));
+    }
+
+    private LikeCounterBuffer buffer(boolean writeBehind, int flushThreshold) {
+        return new LikeCounterBuffer(
+            postRepository,
+            commentRepository,
+            hotFeed,
+            transactionManager,
+            new LikeCounterProperties(writeBehind, Duration.ofHours(1), flushThreshold, 4),
+            meterRegistry
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.group1.froggy.app.counters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedCounterTest {
+
+    @Test
+    void drain_ResetsCounters() {
+        StripedCounter counter = new StripedCounter(4);
+        UUID id = UUID.randomUUID();
+
+        assertEquals(1, counter.add(id, 1));
+        assertEquals(1, counter.add(id, 2));
+        assertEquals(3, counter.get(id));
+
+        assertEquals(Map.of(id, 3L), counter.drain());
+        assertEquals(0, counter.get(id));
+        assertEquals(0, counter.size());
+    }
+
+    @Test
+    void drain_ConcurrentWithIncrementsLosesNothing() throws InterruptedException {
+        StripedCounter counter = new StripedCounter(4);
+        UUID hot = UUID.randomUUID();
+        int threads = 8;
+        int incrementsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < incrementsPerThread; j++) {
+                    counter.add(hot, 1);
+                }
+                done.countDown();
+            });
+        }
+
+        AtomicLong drained = new AtomicLong();
+        while (done.getCount() > 0) {
+            drained.addAndGet(counter.drain().getOrDefault(hot, 0L));
+        }
+        drained.addAndGet(counter.drain().getOrDefault(hot, 0L));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * incrementsPerThread, drained.get());
+    }
+}
@@ -0,0 +1,285 @@
+package com.group1.froggy.app.feed;
+
+import com.group1.froggy.api.post.Post;
+import com.group1.froggy.app.config.HotFeedProperties;
+import com.group1.froggy.app.pagination.KeysetCursor;
+import com.group1.froggy.jpa.account.AccountJpa;
+import com.group1.froggy.jpa.post.PostJpa;
+import com.group1.froggy.jpa.post.PostRepository;
+import com.group1.froggy.jpa.post.PostView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HotFeedTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 10, 1, 12, 0);
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AccountJpa author = AccountJpa.builder()
+        .id(UUID.randomUUID())
+        .username("author")
+        .hashedPassword("hashed")
+        .createdAt(NOW.minusDays(1))
+        .build();
+
+    private HotFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.destroy();
+    }
+
+    @Test
+    void findLatest_ServesPagesInsideWindowOnly() {
+        List<PostJpa> posts = posts(5);
+        feed = loadedFeed(3, posts);
+
+        assertEquals(ids(posts.subList(0, 2)), ids(feed.findLatest(null, 0, 2).orElseThrow()));
+        assertEquals(ids(posts.subList(1, 3)), ids(feed.findLatest(null, 1, 2).orElseThrow()));
+        assertTrue(feed.findLatest(null, 2, 2).isEmpty());
+
+        PostJpa first = posts.getFirst();
+        KeysetCursor cursor = new KeysetCursor(first.getCreatedAt(), first.getId());
+        assertEquals(ids(posts.subList(1, 3)), ids(feed.findLatest(cursor, 0, 2).orElseThrow()));
+        assertTrue(feed.findLatest(cursor, 0, 3).isEmpty());
+    }
+
+    @Test
+    void findLatest_WholeTableInWindow_ServesShortPages() {
+        List<PostJpa> posts = posts(2);
+        feed = loadedFeed(10, posts);
+
+        assertEquals(ids(posts), ids(feed.findLatest(null, 0, 11).orElseThrow()));
+        assertEquals(List.of(), feed.findLatest(null, 5, 11).orElseThrow());
+    }
+
+    @Test
+    void put_InsertsNewestAndEvictsOldest() {
+        List<PostJpa> posts = posts(3);
+        feed = loadedFeed(3, posts);
+
+        PostJpa newest = post(NOW.plusMinutes(1), 0);
+        feed.put(newest);
+
+        assertEquals(List.of(newest.getId(), posts.get(0).getId(), posts.get(1).getId()), ids(feed.findLatest(null, 0, 3).orElseThrow()));
+        // The evicted post may have older neighbours in the database, so the window no longer reaches the end
+        assertTrue(feed.findLatest(null, 0, 4).isEmpty());
+    }
+
+    @Test
+    void put_OutOfOrderPostLandsInFeedOrder() {
+        List<PostJpa> posts = posts(3);
+        feed = loadedFeed(10, posts);
+
+        PostJpa between = post(posts.get(1).getCreatedAt().plusSeconds(1), 0);
+        feed.put(between);
+
+        assertEquals(
+            List.of(posts.get(0).getId(), between.getId(), posts.get(1).getId(), posts.get(2).getId()),
+            ids(feed.findLatest(null, 0, 10).orElseThrow())
+        );
+    }
+
+    @Test
+    void putAndRemove_UpdateContentAndCloseGap() {
+        List<PostJpa> posts = posts(3);
+        feed = loadedFeed(10, posts);
+
+        PostJpa edited = posts.get(1);
+        edited.setContent("edited");
+        feed.edit(edited);
+        feed.remove(posts.get(0).getId());
+
+        List<FeedEntry> page = feed.findLatest(null, 0, 10).orElseThrow();
+        assertEquals(List.of(posts.get(1).getId(), posts.get(2).getId()), ids(page));
+        assertEquals("edited", page.getFirst().toPost(0, false).content());
+    }
+
+    @Test
+    void editAfterRemove_OlderPostOutsideWindow_LeavesNoGap() {
+        List<PostJpa> posts = posts(5);
+        feed = loadedFeed(3, posts);
+
+        feed.remove(posts.get(0).getId());
+        PostJpa older = posts.get(4);
+        older.setContent("edited");
+        feed.edit(older);
+
+        assertEquals(ids(posts.subList(1, 3)), ids(feed.findLatest(null, 0, 2).orElseThrow()));
+        PostJpa last = posts.get(2);
+        // posts.get(3) lies between the window and the edited post, so the next page must come from the database
+        assertTrue(feed.findLatest(new KeysetCursor(last.getCreatedAt(), last.getId()), 0, 2).isEmpty());
+        assertTrue(feed.find(older.getId()).isEmpty());
+    }
+
+    @Test
+    void put_OlderThanIncompleteWindow_NotInserted() {
+        List<PostJpa> posts = posts(5);
+        feed = loadedFeed(3, posts);
+        feed.remove(posts.get(0).getId());
+
+        PostJpa old = post(posts.get(4).getCreatedAt().minusMinutes(1), 0);
+        feed.put(old);
+
+        assertTrue(feed.find(old.getId()).isEmpty());
+        assertTrue(feed.findLatest(null, 0, 3).isEmpty());
+    }
+
+    @Test
+    void addLikesAndComments_UpdateCountsInPlace() {
+        List<PostJpa> posts = List.of(post(NOW, 3));
+        feed = loadedFeed(10, posts);
+        UUID id = posts.getFirst().getId();
+
+        feed.addLikes(Map.of(id, 1L));
+        feed.addComments(id, 2);
+        feed.addComments(id, -1);
+
+        Post post = feed.findLatest(null, 0, 1).orElseThrow().getFirst().toPost(2, true);
+        assertEquals(6L, post.numberOfLikes());
+        assertEquals(1L, post.numberOfComments());
+        assertTrue(post.likedByCurrentUser());
+    }
+
+    @Test
+    void reload_CommitDuringRead_WaitsAndIsAppliedOnce() throws Exception {
+        List<PostJpa> posts = List.of(post(NOW, 3));
+        feed = loadedFeed(10, posts);
+        UUID id = posts.getFirst().getId();
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<PostView> rows = rows(posts, 10);
+        when(postRepository.findLatestPosts(0, 11)).thenAnswer(invocation -> {
+            reading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return rows;
+        });
+        Thread reload = Thread.ofPlatform().start(feed::reload);
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        AtomicBoolean committed = new AtomicBoolean();
+        Thread like = Thread.ofPlatform().start(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                feed.addLikes(Map.of(id, 2L));
+                TransactionSynchronizationUtils.triggerBeforeCommit(false);
+                committed.set(true);
+                TransactionSynchronizationUtils.triggerAfterCommit();
+                TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED
+                );
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+
+        // The like cannot commit while the reload reads, so the rows read cannot already include it
+        like.join(200);
+        assertFalse(committed.get());
+
+        release.countDown();
+        reload.join(5000);
+        like.join(5000);
+
+        assertTrue(committed.get());
+        assertEquals(5L, feed.find(id).orElseThrow().toPost(0, false).numberOfLikes());
+    }
+
+    @Test
+    void findLatest_Disabled_AlwaysMisses() {
+        feed = new HotFeed(postRepository, transactionManager, new HotFeedProperties(false, 10, Duration.ofHours(1)), meterRegistry);
+
+        assertTrue(feed.findLatest(null, 0, 1).isEmpty());
+        verifyNoInteractions(postRepository);
+    }
+
+    /**
+     * Build a feed and wait for its initial load, which runs on the refresh thread.
+     */
+    private HotFeed loadedFeed(int capacity, List<PostJpa> posts) {
+        when(postRepository.findLatestPosts(0, capacity + 1)).thenReturn(rows(posts, capacity));
+        HotFeed hotFeed = new HotFeed(postRepository, transactionManager, new HotFeedProperties(true, capacity, Duration.ofHours(1)), meterRegistry);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (hotFeed.findLatest(null, 0, 0).isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "Feed was not loaded");
+            Thread.onSpinWait();
+        }
+        return hotFeed;
+    }
+
+    /**
+     * @return the rows a reload of a feed with the given capacity reads
+     */
+    private static List<PostView> rows(List<PostJpa> posts, int capacity) {
+        return posts.subList(0, Math.min(posts.size(), capacity + 1)).stream()
+            .map(post -> new PostView(
+                post.getId(),
+                post.getAccount().toAccount(),
+                post.getContent(),
+                post.getLikeCount(),
+                post.getCommentCount(),
+                post.getCreatedAt(),
+                post.getUpdatedAt()
+            ))
+            .toList();
+    }
+
+    /**
+     * @return posts in feed order, newest first
+     */
+    private List<PostJpa> posts(int count) {
+        List<PostJpa> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            posts.add(post(NOW.minusMinutes(i), 0));
+        }
+        return posts;
+    }
+
+    private PostJpa post(LocalDateTime createdAt, long likes) {
+        return PostJpa.builder()
+            .id(UUID.randomUUID())
+            .account(author)
+            .content("post")
+            .createdAt(createdAt)
+            .updatedAt(createdAt)
+            .likeCount(likes)
+            .build();
+    }
+
+    private static List<UUID> ids(List<?> items) {
+        return items.stream()
+            .map(item -> item instanceof FeedEntry entry ? entry.getId() : ((PostJpa) item).getId())
+            .toList();
+    }
+}
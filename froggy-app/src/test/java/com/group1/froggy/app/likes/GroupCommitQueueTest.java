@@ -0,0 +1,164 @@
+package com.group1.froggy.app.likes;
+
+import com.group1.froggy.app.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GroupCommitQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GroupCommitQueue<String> queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void submit_CoalescesConcurrentKeysIntoOneGroup() {
+        List<Set<String>> groups = new CopyOnWriteArrayList<>();
+        queue = queue(10, Duration.ofSeconds(5), 100, keys -> {
+            groups.add(Set.copyOf(keys));
+            return keys;
+        });
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(queue.submit("key-" + i));
+        }
+
+        results.forEach(result -> assertTrue(result.join()));
+        assertEquals(1, groups.size());
+        assertEquals(10, groups.getFirst().size());
+        assertEquals(10.0, meterRegistry.get("froggy.like.ingestion.group.size").summary().totalAmount());
+    }
+
+    @Test
+    void submit_DuplicateKeysInsertOnce() {
+        queue = queue(3, Duration.ofSeconds(5), 100, keys -> {
+            assertEquals(2, keys.size());
+            return Set.of("new");
+        });
+
+        CompletableFuture<Boolean> first = queue.submit("new");
+        CompletableFuture<Boolean> duplicate = queue.submit("new");
+        CompletableFuture<Boolean> existing = queue.submit("existing");
+
+        assertTrue(first.join());
+        assertFalse(duplicate.join());
+        assertFalse(existing.join());
+    }
+
+    @Test
+    void submit_FailedGroupOnlyFailsOffendingKey() {
+        queue = queue(2, Duration.ofSeconds(5), 100, keys -> {
+            if (keys.contains("deleted")) {
+                throw new DataIntegrityViolationException("foreign key");
+            }
+            return keys;
+        });
+
+        CompletableFuture<Boolean> good = queue.submit("good");
+        CompletableFuture<Boolean> bad = queue.submit("deleted");
+
+        assertTrue(good.join());
+        CompletionException e = assertThrows(CompletionException.class, bad::join);
+        assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+    }
+
+    @Test
+    void submit_FullQueue_Throws() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = queue(1, Duration.ZERO, 1, keys -> {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys;
+        });
+
+        // The first key is taken by the writer, the second fills the queue
+        CompletableFuture<Boolean> inFlight = queue.submit("a");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiting = queue.submit("b");
+
+        assertThrows(ServiceOverloadedException.class, () -> queue.submit("c"));
+
+        release.countDown();
+        assertTrue(inFlight.join());
+        assertTrue(waiting.join());
+    }
+
+    @Test
+    void submit_WriterDies_FailsQueuedRequests() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = queue(1, Duration.ZERO, 10, keys -> {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new StackOverflowError("writer died");
+        });
+
+        CompletableFuture<Boolean> inFlight = queue.submit("a");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> waiting = queue.submit("b");
+        release.countDown();
+
+        CompletionException first = assertThrows(CompletionException.class, inFlight::join);
+        assertInstanceOf(ServiceOverloadedException.class, first.getCause());
+        CompletionException second = assertThrows(CompletionException.class, waiting::join);
+        assertInstanceOf(ServiceOverloadedException.class, second.getCause());
+        assertThrows(ServiceOverloadedException.class, () -> queue.submit("c"));
+    }
+
+    @Test
+    void submit_NotWrittenInTime_TimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        queue = new GroupCommitQueue<>("test", 1, Duration.ZERO, Duration.ofMillis(50), 10, keys -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return keys;
+        }, meterRegistry);
+
+        CompletableFuture<Boolean> result = queue.submit("a");
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        release.countDown();
+    }
+
+    private GroupCommitQueue<String> queue(
+        int batchSize,
+        Duration maxLinger,
+        int queueCapacity,
+        Function<Set<String>, Set<String>> insertAll
+    ) {
+        return new GroupCommitQueue<>("test", batchSize, maxLinger, Duration.ofSeconds(5), queueCapacity, insertAll, meterRegistry);
+    }
+}
@@ -0,0 +1,115 @@
+package com.group1.froggy.app.likes;
+
+import com.group1.froggy.app.config.LikedSetIndexProperties;
+import com.group1.froggy.jpa.post.comment.like.CommentLikeRepository;
+import com.group1.froggy.jpa.post.like.PostLikeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikedSetIndexTest {
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    @Mock
+    private CommentLikeRepository commentLikeRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID accountId = UUID.randomUUID();
+
+    @Test
+    void likedPostIds_LoadsAccountOnceAndAnswersFromMemory() {
+        LikedSetIndex index = index(10);
+        UUID liked = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        UUID comment = UUID.randomUUID();
+        when(postLikeRepository.findPostIdsLikedBy(accountId, Limit.of(11))).thenReturn(List.of(liked));
+        when(commentLikeRepository.findCommentIdsLikedBy(accountId, Limit.of(11))).thenReturn(List.of(comment));
+
+        assertEquals(Set.of(liked), index.likedPostIds(accountId, List.of(liked, other)));
+        assertTrue(index.likesPost(accountId, liked));
+        assertFalse(index.likesPost(accountId, other));
+        assertTrue(index.likesComment(accountId, comment));
+
+        verify(postLikeRepository, times(1)).findPostIdsLikedBy(any(), any());
+        verify(postLikeRepository, never()).findLikedPostIds(any(), any());
+        assertEquals(1, meterRegistry.get("froggy.liked.index.account.bytes").summary().count());
+    }
+
+    @Test
+    void postLiked_UpdatesCachedAccount() {
+        LikedSetIndex index = index(10);
+        UUID postId = UUID.randomUUID();
+        UUID commentId = UUID.randomUUID();
+        when(postLikeRepository.findPostIdsLikedBy(accountId, Limit.of(11))).thenReturn(List.of());
+        when(commentLikeRepository.findCommentIdsLikedBy(accountId, Limit.of(11))).thenReturn(List.of());
+
+        assertFalse(index.likesPost(accountId, postId));
+        index.postLiked(accountId, postId);
+        index.commentLiked(accountId, commentId);
+
+        assertTrue(index.likesPost(accountId, postId));
+        assertTrue(index.likesComment(accountId, commentId));
+    }
+
+    @Test
+    void likedPostIds_TooManyLikes_QueriesDatabase() {
+        LikedSetIndex index = index(2);
+        UUID postId = UUID.randomUUID();
+        when(postLikeRepository.findPostIdsLikedBy(accountId, Limit.of(3)))
+            .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+        when(postLikeRepository.findLikedPostIds(accountId, List.of(postId))).thenReturn(List.of(postId));
+
+        assertEquals(Set.of(postId), index.likedPostIds(accountId, List.of(postId)));
+        assertEquals(Set.of(postId), index.likedPostIds(accountId, List.of(postId)));
+
+        // The account is remembered as unindexed rather than reloaded on every request
+        verify(postLikeRepository, times(1)).findPostIdsLikedBy(any(), any());
+        verifyNoInteractions(commentLikeRepository);
+    }
+
+    @Test
+    void likedIds_StaySortedAsIdsAreAdded() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        LikedIds liked = LikedIds.of(ids.subList(0, 25));
+        for (UUID id : ids.subList(25, 50)) {
+            liked = liked.with(id);
+        }
+        liked = liked.with(ids.getFirst());
+
+        assertEquals(50, liked.size());
+        for (UUID id : ids) {
+            assertTrue(liked.contains(id));
+        }
+        assertFalse(liked.contains(UUID.randomUUID()));
+    }
+
+    private LikedSetIndex index(int maximumLikesPerAccount) {
+        return new LikedSetIndex(
+            postLikeRepository,
+            commentLikeRepository,
+            new LikedSetIndexProperties(true, DataSize.ofMegabytes(1), maximumLikesPerAccount, Duration.ofMinutes(5)),
+            meterRegistry
+        );
+    }
+}
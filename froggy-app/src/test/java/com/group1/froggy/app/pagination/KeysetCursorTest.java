@@ -0,0 +1,44 @@
+package com.group1.froggy.app.pagination;
+
+import com.group1.froggy.app.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTest {
+
+    private static final UUID ID = UUID.fromString("3f2c8a4e-9b1d-4c7e-a5f0-1e2d3c4b5a69");
+
+    @Test
+    void encode_RoundTrips() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000), ID);
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, KeysetCursor.decode(encoded));
+    }
+
+    @Test
+    void decode_NotBase64() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void decode_WrongLength() {
+        String encoded = new KeysetCursor(LocalDateTime.now(), ID).encode();
+
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(encoded.substring(0, encoded.length() - 4)));
+    }
+
+    @Test
+    void decode_UnknownVersion() {
+        String encoded = new KeysetCursor(LocalDateTime.now(), ID).encode();
+        String tampered = "B" + encoded.substring(1);
+
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(tampered));
+    }
+}
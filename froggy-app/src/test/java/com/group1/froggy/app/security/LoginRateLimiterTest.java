@@ -0,0 +1,73 @@
+package com.group1.froggy.app.security;
+
+import com.group1.froggy.app.config.LoginRateLimitProperties;
+import com.group1.froggy.app.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginRateLimiter limiter(boolean enabled) {
+        return new LoginRateLimiter(
+            new LoginRateLimitProperties(enabled, 3, Duration.ofSeconds(10), 5, Duration.ofSeconds(1), 1000, 4),
+            meterRegistry,
+            nanos::get
+        );
+    }
+
+    @Test
+    void acquire_UsernameBucketEmpties_ThenRefills() {
+        LoginRateLimiter limiter = limiter(true);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("froggy", "10.0.0." + i);
+        }
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class, () -> limiter.acquire("froggy", "10.0.0.9"));
+        assertEquals(Duration.ofSeconds(10), e.getRetryAfter());
+
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        limiter.acquire("froggy", "10.0.0.9");
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("froggy", "10.0.0.9"));
+
+        assertEquals(2, meterRegistry.get("froggy.login.rate.limit.rejections").tag("kind", "username").counter().count());
+    }
+
+    @Test
+    void acquire_AddressBucketLimitsUsernameSpraying() {
+        LoginRateLimiter limiter = limiter(true);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("user5", "10.0.0.1"));
+        limiter.acquire("user5", "10.0.0.2");
+    }
+
+    @Test
+    void acquire_RefillIsCappedAtCapacity() {
+        LoginRateLimiter limiter = limiter(true);
+        limiter.acquire("froggy", "10.0.0.1");
+
+        nanos.addAndGet(Duration.ofHours(1).toNanos());
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("froggy", "10.0.0." + i);
+        }
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("froggy", "10.0.0.9"));
+    }
+
+    @Test
+    void acquire_Disabled_NeverRejects() {
+        LoginRateLimiter limiter = limiter(false);
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("froggy", "10.0.0.1");
+        }
+    }
+}
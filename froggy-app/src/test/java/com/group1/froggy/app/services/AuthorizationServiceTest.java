@@ -3,29 +3,44 @@ package com.group1.froggy.app.services;
 import com.group1.froggy.api.account.Account;
 import com.group1.froggy.api.account.AccountCredentials;
 import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.account.UsernameFilter;
+import com.group1.froggy.app.config.PasswordHashingProperties;
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.app.config.UsernameFilterProperties;
 import com.group1.froggy.app.exceptions.InvalidCredentialsException;
+import com.group1.froggy.app.security.PasswordHasher;
+import com.group1.froggy.app.session.DatabaseSessionStore;
+import com.group1.froggy.app.session.SessionCache;
 import com.group1.froggy.jpa.account.AccountJpa;
 import com.group1.froggy.jpa.account.AccountRepository;
 import com.group1.froggy.jpa.account.session.SessionJpa;
 import com.group1.froggy.jpa.account.session.SessionRepository;
+import com.group1.froggy.jpa.account.session.SessionTimestamps;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,9 +53,64 @@ public class AuthorizationServiceTest {
     @Mock
     private  AccountRepository accountRepository;
 
-    @InjectMocks
     private  AuthorizationService authorizationService;
 
+    private PasswordHasher passwordHasher;
+
+    private UsernameFilter usernameFilter;
+
+    static SessionProperties sessionProperties() {
+        return new SessionProperties(
+            SessionProperties.Mode.DATABASE,
+            new SessionProperties.Cache(100, Duration.ofMinutes(1)),
+            null,
+            new SessionProperties.Expiry(Duration.ofMinutes(30), Duration.ofDays(7)),
+            new SessionProperties.Sweeper(true, Duration.ofMinutes(5), 1000, 100),
+            new SessionProperties.Limits(3, false)
+        );
+    }
+
+    static SessionTimestamps activeSession() {
+        LocalDateTime now = LocalDateTime.now();
+        return new SessionTimestamps() {
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return now;
+            }
+
+            @Override
+            public LocalDateTime getLastSeenAt() {
+                return now;
+            }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        SessionProperties sessionProperties = sessionProperties();
+        SessionCache sessionCache = new SessionCache(sessionProperties, new SimpleMeterRegistry());
+        passwordHasher = new PasswordHasher(
+            new PasswordHashingProperties(1, 10, Duration.ofMillis(1), 4, 4),
+            new SimpleMeterRegistry()
+        );
+        usernameFilter = new UsernameFilter(
+            new UsernameFilterProperties(true, 1000, 0.01),
+            accountRepository,
+            new SimpleMeterRegistry()
+        );
+        authorizationService = new AuthorizationService(
+            accountRepository,
+            new DatabaseSessionStore(sessionRepository, sessionCache, sessionProperties),
+            passwordHasher,
+            usernameFilter
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.destroy();
+    }
+
     @Test
     void createAccount_Success(){
         AccountCredentials accountUpload = new AccountCredentials("eighdyy", "123");
@@ -125,13 +195,148 @@ public class AuthorizationServiceTest {
 
         when(accountRepository.findByUsername(accountUpload.username())).thenReturn(Optional.of(accountJpa));
         when(sessionRepository.save(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+        when(sessionRepository.findTimestampsById(any())).thenReturn(Optional.of(activeSession()));
         when(sessionRepository.sessionExists(any(), any())).thenReturn(true);
 
         ResponseEntity<Void> response = authorizationService.loginAccount(accountUpload);
         assertNotNull(response);
 
-        response = authorizationService.logoutAccount(response.getHeaders().getFirst("Set-Cookie"));
+        Session session = authorizationService.validateSession(response.getHeaders().getFirst("Set-Cookie"));
+        response = authorizationService.logoutAccount(session);
+
+        assertEquals("session=; Path=/; Max-Age=0; HttpOnly", response.getHeaders().getFirst("Set-Cookie"));
+    }
+
+    @Test
+    void validateSession_CachesValidSession(){
+        UUID accountId = UUID.randomUUID();
+        String cookie = "session=" + accountId + ":token";
+        when(sessionRepository.findTimestampsById(SessionJpa.createId(accountId, "token"))).thenReturn(Optional.of(activeSession()));
+
+        Session first = authorizationService.validateSession(cookie);
+        Session second = authorizationService.validateSession(cookie);
+
+        assertEquals(new Session(accountId, "token"), first);
+        assertEquals(first, second);
+        verify(sessionRepository, times(1)).findTimestampsById(SessionJpa.createId(accountId, "token"));
+    }
+
+    @Test
+    void validateSession_InvalidTokenIsNotCached(){
+        UUID accountId = UUID.randomUUID();
+        String cookie = "session=" + accountId + ":token";
+        when(sessionRepository.findTimestampsById(SessionJpa.createId(accountId, "token"))).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCredentialsException.class, () -> authorizationService.validateSession(cookie));
+        assertThrows(InvalidCredentialsException.class, () -> authorizationService.validateSession(cookie));
+
+        verify(sessionRepository, times(2)).findTimestampsById(SessionJpa.createId(accountId, "token"));
+    }
+
+    @Test
+    void logoutAccount_InvalidatesCachedSession(){
+        UUID accountId = UUID.randomUUID();
+        String cookie = "session=" + accountId + ":token";
+        when(sessionRepository.findTimestampsById(SessionJpa.createId(accountId, "token")))
+            .thenReturn(Optional.of(activeSession()))
+            .thenReturn(Optional.empty());
+        when(sessionRepository.sessionExists(accountId, "token")).thenReturn(true);
+
+        Session session = authorizationService.validateSession(cookie);
+        authorizationService.logoutAccount(session);
+
+        assertThrows(InvalidCredentialsException.class, () -> authorizationService.validateSession(cookie));
+    }
+
+    @Test
+    void invalidateAllSessions_InvalidatesCachedSessions(){
+        UUID accountId = UUID.randomUUID();
+        String cookie = "session=" + accountId + ":token";
+        when(sessionRepository.findTimestampsById(SessionJpa.createId(accountId, "token")))
+            .thenReturn(Optional.of(activeSession()))
+            .thenReturn(Optional.empty());
+
+        authorizationService.validateSession(cookie);
+        authorizationService.invalidateAllSessions(accountId);
 
+        verify(sessionRepository).deleteAllByIdAccountId(accountId);
+        assertThrows(InvalidCredentialsException.class, () -> authorizationService.validateSession(cookie));
+    }
+
+    @Test
+    void logoutEverywhere_RevokesAllSessions(){
+        UUID accountId = UUID.randomUUID();
+
+        ResponseEntity<Void> response = authorizationService.logoutEverywhere(new Session(accountId, "token"));
+
+        verify(sessionRepository).deleteAllByIdAccountId(accountId);
         assertEquals("session=; Path=/; Max-Age=0; HttpOnly", response.getHeaders().getFirst("Set-Cookie"));
     }
+
+    @Test
+    void loginAccount_UnknownToFilter_StillLooksUp(){
+        when(accountRepository.streamAllUsernames()).thenReturn(Stream.of("existing"));
+        usernameFilter.load();
+        when(accountRepository.findByUsername("stranger")).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> authorizationService.loginAccount(new AccountCredentials("stranger", "123")));
+
+        // Created through another instance, the account would be missing from this filter but found here
+        verify(accountRepository).findByUsername("stranger");
+    }
+
+    @Test
+    void createAccount_UnknownUsername_SkipsExistenceQuery(){
+        when(accountRepository.streamAllUsernames()).thenReturn(Stream.of("existing"));
+        usernameFilter.load();
+        when(accountRepository.save(any(AccountJpa.class))).thenReturn(AccountJpa.builder()
+                .id(UUID.randomUUID())
+                .username("newcomer")
+                .hashedPassword("hashed")
+                .build());
+
+        authorizationService.createAccount(new AccountCredentials("newcomer", "123"));
+
+        verify(accountRepository, never()).existsByUsername(any());
+        assertTrue(usernameFilter.mightExist("newcomer"));
+    }
+
+    @Test
+    void createAccount_UniqueViolation_Conflict(){
+        when(accountRepository.existsByUsername("racer")).thenReturn(false);
+        when(accountRepository.save(any(AccountJpa.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(EntityExistsException.class, () -> authorizationService.createAccount(new AccountCredentials("racer", "123")));
+    }
+
+    @Test
+    void loginAccount_RehashesWeakerPassword(){
+        AccountCredentials credentials = new AccountCredentials("tad", "pole");
+        AccountJpa accountJpa = AccountJpa.builder()
+                .id(UUID.randomUUID())
+                .username(credentials.username())
+                .hashedPassword(new BCryptPasswordEncoder(4).encode(credentials.password()))
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        PasswordHasher strongerHasher = new PasswordHasher(
+            new PasswordHashingProperties(1, 10, Duration.ofMillis(1), 5, 5),
+            new SimpleMeterRegistry()
+        );
+        SessionProperties sessionProperties = sessionProperties();
+        AuthorizationService service = new AuthorizationService(
+            accountRepository,
+            new DatabaseSessionStore(sessionRepository, new SessionCache(sessionProperties, new SimpleMeterRegistry()), sessionProperties),
+            strongerHasher,
+            usernameFilter
+        );
+
+        when(accountRepository.findByUsername(credentials.username())).thenReturn(Optional.of(accountJpa));
+        when(sessionRepository.save(any())).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+        service.loginAccount(credentials);
+
+        verify(accountRepository, timeout(5000)).updateHashedPassword(eq(accountJpa.getId()), argThat(hash -> hash.startsWith("$2a$05$")));
+        strongerHasher.destroy();
+    }
 }
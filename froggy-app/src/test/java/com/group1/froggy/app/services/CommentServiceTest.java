@@ -1,25 +1,40 @@
 package com.group1.froggy.app.services;
 
+import com.group1.froggy.api.BatchItemResult;
 import com.group1.froggy.api.Content;
+import com.group1.froggy.api.account.Session;
 import com.group1.froggy.api.comment.Comment;
+import com.group1.froggy.api.comment.NewComment;
+import com.group1.froggy.app.counters.LikeCounterBuffer;
 import com.group1.froggy.app.exceptions.IllegalActionException;
+import com.group1.froggy.app.exceptions.InvalidCursorException;
+import com.group1.froggy.app.feed.HotFeed;
+import com.group1.froggy.app.likes.LikeIngestion;
+import com.group1.froggy.app.likes.LikedSetIndex;
+import com.group1.froggy.app.pagination.CursorPage;
+import com.group1.froggy.app.pagination.KeysetCursor;
+import com.group1.froggy.app.stats.PostStatsCache;
 import com.group1.froggy.jpa.account.AccountJpa;
+import com.group1.froggy.jpa.account.AccountRepository;
 import com.group1.froggy.jpa.account.session.SessionJpa;
 import com.group1.froggy.jpa.post.PostJpa;
 import com.group1.froggy.jpa.post.PostRepository;
 import com.group1.froggy.jpa.post.comment.CommentJpa;
 import com.group1.froggy.jpa.post.comment.CommentRepository;
-import com.group1.froggy.jpa.post.comment.like.CommentLikeRepository;
+import com.group1.froggy.jpa.post.comment.CommentView;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,10 +52,22 @@ public class CommentServiceTest {
     private PostRepository postRepository;
 
     @Mock
-    private CommentLikeRepository commentLikeRepository;
+    private AccountRepository accountRepository;
 
     @Mock
-    private AuthorizationService authorizationService;
+    private LikeCounterBuffer likeCounterBuffer;
+
+    @Mock
+    private LikeIngestion likeIngestion;
+
+    @Mock
+    private HotFeed hotFeed;
+
+    @Mock
+    private LikedSetIndex likedSetIndex;
+
+    @Mock
+    private PostStatsCache postStatsCache;
 
     @InjectMocks
     private  CommentService commentService;
@@ -58,6 +85,7 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         AccountJpa author1 = AccountJpa.builder()
@@ -82,6 +110,7 @@ public class CommentServiceTest {
             .content("c1")
             .createdAt(LocalDateTime.now().minusHours(2))
             .updatedAt(LocalDateTime.now().minusHours(2))
+            .likeCount(3)
             .build();
 
         AccountJpa author2 = AccountJpa.builder()
@@ -106,20 +135,125 @@ public class CommentServiceTest {
             .content("c2")
             .createdAt(LocalDateTime.now().minusHours(2))
             .updatedAt(LocalDateTime.now().minusHours(2))
+            .likeCount(1)
             .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(commentRepository.findCommentJpaByPostId(any())).thenReturn(List.of(first, second));
-        when(commentLikeRepository.countByComment(any(CommentJpa.class))).thenReturn(3L);
-        when(commentLikeRepository.existsById(any())).thenReturn(false).thenReturn(true);
+        when(commentRepository.findViewsByPostId(post1.getId(), PageRequest.of(0, 11))).thenReturn(List.of(view(first), view(second)));
+        when(likedSetIndex.likedCommentIds(currentUser.getId(), List.of(first.getId(), second.getId())))
+            .thenReturn(Set.of(second.getId()));
 
-        List<Comment> comments = commentService.getCommentsByPost("session=valid", any());
+        CursorPage<Comment> page = commentService.getCommentsByPost(sessionJpa.toSession(), post1.getId(), null, null);
+        List<Comment> comments = page.items();
 
         assertEquals(2, comments.size());
         assertEquals("c1", comments.get(0).content());
         assertEquals("c2", comments.get(1).content());
+        assertEquals(3L, comments.get(0).numberOfLikes());
+        assertEquals(1L, comments.get(1).numberOfLikes());
         assertFalse(comments.get(0).likedByCurrentUser());
         assertTrue(comments.get(1).likedByCurrentUser());
+        verify(likedSetIndex, never()).likesComment(any(), any());
+        // Authors come with the comments, and the post is only referenced by id
+        verify(commentRepository).findViewsByPostId(any(), any());
+        verifyNoMoreInteractions(commentRepository, postRepository, accountRepository);
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getCommentsByPost_ReturnsNextCursorWhenMoreFollow() {
+        AccountJpa author = AccountJpa.builder()
+            .id(UUID.randomUUID())
+            .username("author")
+            .hashedPassword("hashed")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .build();
+        PostJpa postJpa = PostJpa.builder()
+            .id(UUID.randomUUID())
+            .account(author)
+            .content("post")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .updatedAt(LocalDateTime.now().minusDays(1))
+            .build();
+        CommentJpa oldest = comment(postJpa, author, LocalDateTime.now().minusHours(3));
+        CommentJpa middle = comment(postJpa, author, LocalDateTime.now().minusHours(2));
+        CommentJpa newest = comment(postJpa, author, LocalDateTime.now().minusHours(1));
+
+        when(commentRepository.findViewsByPostId(postJpa.getId(), PageRequest.of(0, 3)))
+            .thenReturn(List.of(view(oldest), view(middle), view(newest)));
+
+        CursorPage<Comment> page = commentService.getCommentsByPost(SessionJpa.create("token", author).toSession(), postJpa.getId(), 2, null);
+
+        assertEquals(List.of(oldest.getId(), middle.getId()), page.items().stream().map(Comment::id).toList());
+        assertEquals(new KeysetCursor(middle.getCreatedAt(), middle.getId()), KeysetCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getCommentsByPost_CursorSeeksAfterPosition() {
+        AccountJpa author = AccountJpa.builder()
+            .id(UUID.randomUUID())
+            .username("author")
+            .hashedPassword("hashed")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .build();
+        PostJpa postJpa = PostJpa.builder()
+            .id(UUID.randomUUID())
+            .account(author)
+            .content("post")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .updatedAt(LocalDateTime.now().minusDays(1))
+            .build();
+        CommentJpa newest = comment(postJpa, author, LocalDateTime.now().minusHours(1));
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now().minusHours(2), UUID.randomUUID());
+
+        when(commentRepository.findViewsByPostIdAfter(postJpa.getId(), cursor.createdAt(), cursor.id(), PageRequest.of(0, 3)))
+            .thenReturn(List.of(view(newest)));
+
+        CursorPage<Comment> page = commentService.getCommentsByPost(SessionJpa.create("token", author).toSession(), postJpa.getId(), 2, cursor.encode());
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+        verify(commentRepository, never()).findViewsByPostId(any(), any());
+    }
+
+    @Test
+    void getCommentsByPost_InvalidCursor_Throws() {
+        assertThrows(InvalidCursorException.class, () ->
+            commentService.getCommentsByPost(new Session(UUID.randomUUID(), "token"), UUID.randomUUID(), null, "not-a-cursor"));
+
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getPreviewComments_GroupsByPostAndResolvesLikesOnce() {
+        AccountJpa author = AccountJpa.builder()
+            .id(UUID.randomUUID())
+            .username("author")
+            .hashedPassword("hashed")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .build();
+        PostJpa commented = PostJpa.builder()
+            .id(UUID.randomUUID())
+            .account(author)
+            .content("post")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .updatedAt(LocalDateTime.now().minusDays(1))
+            .build();
+        UUID quiet = UUID.randomUUID();
+        CommentJpa newest = comment(commented, author, LocalDateTime.now().minusHours(1));
+        CommentJpa older = comment(commented, author, LocalDateTime.now().minusHours(2));
+        List<UUID> postIds = List.of(commented.getId(), quiet);
+
+        when(commentRepository.findNewestByPostIds(postIds, 2)).thenReturn(List.of(view(newest), view(older)));
+        when(likedSetIndex.likedCommentIds(author.getId(), List.of(newest.getId(), older.getId())))
+            .thenReturn(Set.of(older.getId()));
+
+        Map<UUID, List<Comment>> previews = commentService.getPreviewComments(SessionJpa.create("token", author).toSession(), postIds, 2);
+
+        assertEquals(List.of(newest.getId(), older.getId()), previews.get(commented.getId()).stream().map(Comment::id).toList());
+        assertTrue(previews.get(commented.getId()).get(1).likedByCurrentUser());
+        assertEquals(List.of(), previews.get(quiet));
+        verify(commentRepository).findNewestByPostIds(postIds, 2);
+        verifyNoMoreInteractions(commentRepository);
     }
 
     @Test
@@ -135,6 +269,7 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         AccountJpa owner = AccountJpa.builder()
@@ -153,9 +288,9 @@ public class CommentServiceTest {
             .updatedAt(LocalDateTime.now().minusDays(1))
             .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(postRepository.existsById(postId)).thenReturn(true);
+        when(postRepository.addToCommentCount(postId, 1)).thenReturn(1);
         when(postRepository.getReferenceById(postId)).thenReturn(postJpa);
+        when(accountRepository.getReferenceById(currentUser.getId())).thenReturn(currentUser);
         when(commentRepository.save(any(CommentJpa.class))).thenAnswer(invocation -> {
             CommentJpa input = invocation.getArgument(0);
 
@@ -168,15 +303,15 @@ public class CommentServiceTest {
                 .updatedAt(input.getUpdatedAt())
                 .build();
         });
-        when(commentLikeRepository.countByComment(any(CommentJpa.class))).thenReturn(0L);
-        when(commentLikeRepository.existsById(any())).thenReturn(false);
 
-        Comment created = commentService.createComment("session=valid", postId, new Content("hello"));
+        Comment created = commentService.createComment(sessionJpa.toSession(), postId, new Content("hello"));
 
         assertNotNull(created);
         assertEquals(postId, created.postId());
         assertEquals("hello", created.content());
         verify(commentRepository).save(any(CommentJpa.class));
+        verify(hotFeed).addComments(postId, 1);
+        verify(postStatsCache).changed(postId);
     }
 
     @Test
@@ -192,16 +327,70 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         UUID postId = UUID.randomUUID();
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(postRepository.existsById(postId)).thenReturn(false);
+        when(postRepository.addToCommentCount(postId, 1)).thenReturn(0);
 
         assertThrows(EntityNotFoundException.class, () ->
-            commentService.createComment("session=valid", postId, new Content("hello")));
+            commentService.createComment(sessionJpa.toSession(), postId, new Content("hello")));
+
+        verify(commentRepository, never()).save(any(CommentJpa.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createComments_OneCounterBatchOneSaveAll_PerItemResults() {
+        AccountJpa currentUser = AccountJpa.builder()
+            .id(UUID.randomUUID())
+            .username("current")
+            .hashedPassword("hashed")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .build();
+
+        UUID postId = UUID.randomUUID();
+        UUID missingPostId = UUID.randomUUID();
+        PostJpa postJpa = PostJpa.builder()
+            .id(postId)
+            .account(currentUser)
+            .content("post")
+            .createdAt(LocalDateTime.now().minusDays(1))
+            .updatedAt(LocalDateTime.now().minusDays(1))
+            .build();
 
+        when(postRepository.addToCommentCounts(Map.of(postId, 2L, missingPostId, 1L))).thenReturn(Set.of(postId));
+        when(postRepository.getReferenceById(postId)).thenReturn(postJpa);
+        when(accountRepository.getReferenceById(currentUser.getId())).thenReturn(currentUser);
+        when(commentRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<CommentJpa> input = invocation.getArgument(0);
+            return input.stream()
+                .map(comment -> CommentJpa.builder()
+                    .id(UUID.randomUUID())
+                    .post(comment.getPost())
+                    .account(comment.getAccount())
+                    .content(comment.getContent())
+                    .createdAt(comment.getCreatedAt())
+                    .updatedAt(comment.getUpdatedAt())
+                    .build())
+                .toList();
+        });
+
+        List<BatchItemResult<Comment>> results = commentService.createComments(
+            new Session(currentUser.getId(), "token"),
+            List.of(new NewComment(postId, "first"), new NewComment(missingPostId, "lost"), new NewComment(postId, "second"))
+        );
+
+        assertEquals(List.of(201, 404, 201), results.stream().map(BatchItemResult::status).toList());
+        assertEquals("first", results.get(0).item().content());
+        assertEquals("Post not found", results.get(1).detail());
+        assertEquals("second", results.get(2).item().content());
+        verify(commentRepository).saveAll(argThat(comments -> ((List<CommentJpa>) comments).size() == 2));
         verify(commentRepository, never()).save(any(CommentJpa.class));
+        verify(postRepository, never()).addToCommentCount(any(), anyLong());
+        verify(hotFeed).addComments(postId, 2);
+        verify(postStatsCache).changed(postId);
+        verify(postStatsCache, never()).changed(missingPostId);
     }
 
     @Test
@@ -217,6 +406,7 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         UUID commentId = UUID.randomUUID();
@@ -246,13 +436,11 @@ public class CommentServiceTest {
             .updatedAt(LocalDateTime.now().minusHours(2))
             .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(commentRepository.findById(commentId)).thenReturn(Optional.of(existing));
+        when(commentRepository.findWithAuthorById(commentId)).thenReturn(Optional.of(existing));
         when(commentRepository.save(existing)).thenReturn(existing);
-        when(commentLikeRepository.countByComment(existing)).thenReturn(2L);
-        when(commentLikeRepository.existsById(any())).thenReturn(true);
+        when(likedSetIndex.likesComment(currentUser.getId(), commentId)).thenReturn(true);
 
-        Comment updated = commentService.editComment("session=valid", commentId, new Content("new"));
+        Comment updated = commentService.editComment(sessionJpa.toSession(), commentId, new Content("new"));
 
         assertNotNull(updated);
         assertEquals("new", updated.content());
@@ -272,14 +460,14 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         UUID commentId = UUID.randomUUID();
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(commentRepository.findById(commentId)).thenReturn(Optional.empty());
+        when(commentRepository.findWithAuthorById(commentId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () ->
-            commentService.editComment("session=valid", commentId, new Content("new")));
+            commentService.editComment(sessionJpa.toSession(), commentId, new Content("new")));
     }
 
     @Test
@@ -295,6 +483,7 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         UUID commentId = UUID.randomUUID();
@@ -324,12 +513,17 @@ public class CommentServiceTest {
             .updatedAt(LocalDateTime.now().minusHours(1))
             .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(existing));
 
-        commentService.deleteComment("session=valid", commentId);
+        commentService.deleteComment(sessionJpa.toSession(), commentId);
 
-        verify(commentRepository).delete(existing);
+        // Lookup, delete and counter update; the database cascades to the comment's likes
+        verify(commentRepository).findById(commentId);
+        verify(commentRepository).deleteAllByIdInBatch(List.of(commentId));
+        verify(postRepository).addToCommentCount(postId, -1);
+        verifyNoMoreInteractions(commentRepository, postRepository);
+        verify(hotFeed).addComments(postId, -1);
+        verify(postStatsCache).changed(postId);
     }
 
     @Test
@@ -352,6 +546,7 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(other.getId(), "token"))
             .account(other)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         UUID commentId = UUID.randomUUID();
@@ -381,13 +576,12 @@ public class CommentServiceTest {
             .updatedAt(LocalDateTime.now().minusHours(1))
             .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
         when(commentRepository.findById(commentId)).thenReturn(Optional.of(existing));
 
         assertThrows(IllegalActionException.class, () ->
-            commentService.deleteComment("session=valid", commentId));
+            commentService.deleteComment(sessionJpa.toSession(), commentId));
 
-        verify(commentRepository, never()).delete(any(CommentJpa.class));
+        verify(commentRepository, never()).deleteAllByIdInBatch(any());
     }
 
     @Test
@@ -403,6 +597,7 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         UUID commentId = UUID.randomUUID();
@@ -437,18 +632,17 @@ public class CommentServiceTest {
             .content("comment")
             .createdAt(LocalDateTime.now().minusHours(1))
             .updatedAt(LocalDateTime.now().minusHours(1))
+            .likeCount(3)
             .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(commentRepository.findById(commentId)).thenReturn(Optional.of(existing));
-        when(commentLikeRepository.countByComment(existing)).thenReturn(4L);
-        when(commentLikeRepository.existsById(any())).thenReturn(true);
+        when(commentRepository.findWithAuthorById(commentId)).thenReturn(Optional.of(existing));
+        when(likeIngestion.likeComment(commentId, currentUser.getId())).thenReturn(true);
+        when(likeCounterBuffer.pendingCommentLikes(commentId)).thenReturn(1L);
 
-        Comment liked = commentService.likeComment("session=valid", commentId);
+        Comment liked = commentService.likeComment(sessionJpa.toSession(), commentId);
 
         assertEquals(4L, liked.numberOfLikes());
         assertTrue(liked.likedByCurrentUser());
-        verify(commentLikeRepository).save(any());
     }
 
     @Test
@@ -464,14 +658,36 @@ public class CommentServiceTest {
             .id(SessionJpa.createId(currentUser.getId(), "token"))
             .account(currentUser)
             .createdAt(LocalDateTime.now())
+            .lastSeenAt(LocalDateTime.now())
             .build();
 
         UUID commentId = UUID.randomUUID();
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(commentRepository.findById(commentId)).thenReturn(Optional.empty());
+        when(commentRepository.findWithAuthorById(commentId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () ->
-            commentService.likeComment("session=valid", commentId));
+            commentService.likeComment(sessionJpa.toSession(), commentId));
     }
 
+    private static CommentJpa comment(PostJpa postJpa, AccountJpa author, LocalDateTime createdAt) {
+        return CommentJpa.builder()
+            .id(UUID.randomUUID())
+            .post(postJpa)
+            .account(author)
+            .content("comment")
+            .createdAt(createdAt)
+            .updatedAt(createdAt)
+            .build();
+    }
+
+    private static CommentView view(CommentJpa commentJpa) {
+        return new CommentView(
+            commentJpa.getId(),
+            commentJpa.getPost().getId(),
+            commentJpa.getAccount().toAccount(),
+            commentJpa.getContent(),
+            commentJpa.getLikeCount(),
+            commentJpa.getCreatedAt(),
+            commentJpa.getUpdatedAt()
+        );
+    }
 }
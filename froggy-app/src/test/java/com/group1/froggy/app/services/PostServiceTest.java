@@ -1,34 +1,51 @@
 package com.group1.froggy.app.services;
 
+import com.group1.froggy.api.BatchItemResult;
 import com.group1.froggy.api.Content;
 import com.group1.froggy.api.account.Account;
 import com.group1.froggy.api.account.AccountCredentials;
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.api.comment.Comment;
 import com.group1.froggy.api.post.Post;
+import com.group1.froggy.api.post.PostDetail;
 import com.group1.froggy.api.post.PostStats;
+import com.group1.froggy.app.counters.LikeCounterBuffer;
 import com.group1.froggy.app.exceptions.IllegalActionException;
 import com.group1.froggy.app.exceptions.InvalidCredentialsException;
+import com.group1.froggy.app.exceptions.InvalidCursorException;
+import com.group1.froggy.app.feed.FeedEntry;
+import com.group1.froggy.app.feed.HotFeed;
+import com.group1.froggy.app.likes.LikeIngestion;
+import com.group1.froggy.app.likes.LikedSetIndex;
+import com.group1.froggy.app.pagination.CursorPage;
+import com.group1.froggy.app.pagination.KeysetCursor;
+import com.group1.froggy.app.stats.PostStatsCache;
 import com.group1.froggy.jpa.account.AccountJpa;
 import com.group1.froggy.jpa.account.AccountRepository;
 import com.group1.froggy.jpa.account.session.SessionJpa;
 import com.group1.froggy.jpa.post.PostJpa;
 import com.group1.froggy.jpa.post.PostRepository;
-import com.group1.froggy.jpa.post.comment.CommentRepository;
-import com.group1.froggy.jpa.post.like.PostLikeRepository;
+import com.group1.froggy.jpa.post.PostView;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,17 +56,155 @@ public class PostServiceTest {
     private PostRepository postRepository;
 
     @Mock
-    private PostLikeRepository postLikeRepository;
+    private AccountRepository accountRepository;
 
     @Mock
-    private CommentRepository commentRepository;
+    private LikeCounterBuffer likeCounterBuffer;
 
     @Mock
-    private AuthorizationService authorizationService;
+    private LikeIngestion likeIngestion;
+
+    @Mock
+    private HotFeed hotFeed;
+
+    @Mock
+    private LikedSetIndex likedSetIndex;
+
+    @Mock
+    private PostStatsCache postStatsCache;
+
+    @Mock
+    private CommentService commentService;
 
     @InjectMocks
     private PostService postService;
 
+    @Test
+    void getPosts_Offset_ReturnsNextCursorWhenMoreFollow() {
+        AccountJpa accountJpa = account();
+        PostJpa newest = post(accountJpa, LocalDateTime.now().minusMinutes(1));
+        PostJpa older = post(accountJpa, LocalDateTime.now().minusMinutes(2));
+        PostJpa oldest = post(accountJpa, LocalDateTime.now().minusMinutes(3));
+
+        when(postRepository.findLatestPosts(5, 3)).thenReturn(List.of(view(newest), view(older), view(oldest)));
+
+        CursorPage<Post> page = postService.getPosts(SessionJpa.create("token", accountJpa).toSession(), 2, 5, null, null);
+
+        assertEquals(List.of(newest.getId(), older.getId()), page.items().stream().map(Post::id).toList());
+        assertEquals(new KeysetCursor(older.getCreatedAt(), older.getId()), KeysetCursor.decode(page.nextCursor()));
+        // Authors come with the page, and liked ids from the index
+        verify(postRepository).findLatestPosts(5, 3);
+        verifyNoMoreInteractions(postRepository, accountRepository);
+    }
+
+    @Test
+    void getPosts_Cursor_SeeksPastPosition() {
+        AccountJpa accountJpa = account();
+        PostJpa older = post(accountJpa, LocalDateTime.now().minusMinutes(2));
+        KeysetCursor position = new KeysetCursor(LocalDateTime.now().minusMinutes(1), UUID.randomUUID());
+
+        when(postRepository.findLatestPostsBefore(position.createdAt(), position.id(), PageRequest.of(0, 3))).thenReturn(List.of(view(older)));
+
+        CursorPage<Post> page = postService.getPosts(SessionJpa.create("token", accountJpa).toSession(), 2, 40, position.encode(), null);
+
+        assertEquals(List.of(older.getId()), page.items().stream().map(Post::id).toList());
+        assertNull(page.nextCursor());
+        verify(postRepository, never()).findLatestPosts(anyInt(), anyInt());
+    }
+
+    @Test
+    void getPosts_ReadsCountersAndResolvesLikesForWholePage() {
+        AccountJpa accountJpa = account();
+        PostJpa liked = PostJpa.builder()
+                .id(UUID.randomUUID())
+                .account(accountJpa)
+                .content("post")
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .updatedAt(LocalDateTime.now().minusMinutes(1))
+                .likeCount(7)
+                .commentCount(2)
+                .build();
+        PostJpa quiet = post(accountJpa, LocalDateTime.now().minusMinutes(2));
+
+        when(postRepository.findLatestPosts(0, 11)).thenReturn(List.of(view(liked), view(quiet)));
+        when(likedSetIndex.likedPostIds(accountJpa.getId(), List.of(liked.getId(), quiet.getId()))).thenReturn(Set.of(liked.getId()));
+        when(likeCounterBuffer.pendingPostLikes(liked.getId())).thenReturn(2L);
+        when(likeCounterBuffer.pendingPostLikes(quiet.getId())).thenReturn(0L);
+
+        List<Post> posts = postService.getPosts(SessionJpa.create("token", accountJpa).toSession(), 10, 0, null, null).items();
+
+        assertEquals(9L, posts.get(0).numberOfLikes());
+        assertEquals(2L, posts.get(0).numberOfComments());
+        assertTrue(posts.get(0).likedByCurrentUser());
+        assertEquals(0L, posts.get(1).numberOfLikes());
+        assertEquals(0L, posts.get(1).numberOfComments());
+        assertFalse(posts.get(1).likedByCurrentUser());
+        verify(likedSetIndex, never()).likesPost(any(), any());
+    }
+
+    @Test
+    void getPosts_ServedFromHotFeed_OnlyLooksUpLikes() {
+        AccountJpa accountJpa = account();
+        PostJpa newest = post(accountJpa, LocalDateTime.now().minusMinutes(1));
+        PostJpa older = post(accountJpa, LocalDateTime.now().minusMinutes(2));
+        PostJpa oldest = post(accountJpa, LocalDateTime.now().minusMinutes(3));
+
+        when(hotFeed.findLatest(null, 0, 3)).thenReturn(Optional.of(List.of(new FeedEntry(newest, 4), new FeedEntry(older, 0), new FeedEntry(oldest, 0))));
+        when(likedSetIndex.likedPostIds(accountJpa.getId(), List.of(newest.getId(), older.getId()))).thenReturn(Set.of(newest.getId()));
+
+        CursorPage<Post> page = postService.getPosts(SessionJpa.create("token", accountJpa).toSession(), 2, 0, null, null);
+
+        assertEquals(List.of(newest.getId(), older.getId()), page.items().stream().map(Post::id).toList());
+        assertEquals(4L, page.items().get(0).numberOfLikes());
+        assertTrue(page.items().get(0).likedByCurrentUser());
+        assertFalse(page.items().get(1).likedByCurrentUser());
+        assertEquals(new KeysetCursor(older.getCreatedAt(), older.getId()), KeysetCursor.decode(page.nextCursor()));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getPosts_PreviewComments_AttachedFromOneCall() {
+        AccountJpa accountJpa = account();
+        PostJpa newest = post(accountJpa, LocalDateTime.now().minusMinutes(1));
+        PostJpa older = post(accountJpa, LocalDateTime.now().minusMinutes(2));
+        Session session = SessionJpa.create("token", accountJpa).toSession();
+        Comment comment = new Comment(UUID.randomUUID(), older.getId(), accountJpa.toAccount(), "comment",
+                LocalDateTime.now(), LocalDateTime.now(), 0L, false);
+
+        when(hotFeed.findLatest(null, 0, 3)).thenReturn(Optional.of(List.of(new FeedEntry(newest, 0), new FeedEntry(older, 0))));
+        when(likedSetIndex.likedPostIds(any(), any())).thenReturn(Set.of());
+        when(commentService.getPreviewComments(session, List.of(newest.getId(), older.getId()), 3))
+                .thenReturn(Map.of(newest.getId(), List.of(), older.getId(), List.of(comment)));
+
+        List<Post> posts = postService.getPosts(session, 2, 0, null, 3).items();
+
+        assertEquals(List.of(), posts.get(0).previewComments());
+        assertEquals(List.of(comment), posts.get(1).previewComments());
+        verify(commentService, times(1)).getPreviewComments(any(), any(), anyInt());
+    }
+
+    @Test
+    void getPosts_WithoutPreviewComments_LeavesThemOut() {
+        AccountJpa accountJpa = account();
+        PostJpa newest = post(accountJpa, LocalDateTime.now().minusMinutes(1));
+
+        when(hotFeed.findLatest(null, 0, 3)).thenReturn(Optional.of(List.of(new FeedEntry(newest, 0))));
+        when(likedSetIndex.likedPostIds(any(), any())).thenReturn(Set.of());
+
+        List<Post> posts = postService.getPosts(SessionJpa.create("token", accountJpa).toSession(), 2, 0, null, 0).items();
+
+        assertNull(posts.getFirst().previewComments());
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    void getPosts_InvalidCursor() {
+        AccountJpa accountJpa = account();
+
+        assertThrows(InvalidCursorException.class, () ->
+                postService.getPosts(SessionJpa.create("token", accountJpa).toSession(), 10, 0, "garbage", null));
+    }
+
     @Test
     void createPost_Success(){
 
@@ -64,7 +219,7 @@ public class PostServiceTest {
         SessionJpa sessionJpa = SessionJpa.create("token", accountJpa);
         Content content = new Content("passed around willy stick in class today #fire emoji");
 
-        when(authorizationService.validateSession(any())).thenReturn(sessionJpa);
+        when(accountRepository.getReferenceById(accountJpa.getId())).thenReturn(accountJpa);
 
         when(postRepository.save(any(PostJpa.class))).thenAnswer(invocation -> {
             PostJpa saved = invocation.getArgument(0);
@@ -77,7 +232,7 @@ public class PostServiceTest {
                     .build();
         });
 
-        Post post = postService.createPost(sessionJpa.getToken(), content);
+        Post post = postService.createPost(sessionJpa.toSession(), content);
 
         assertNotNull(post);
         assertEquals("passed around willy stick in class today #fire emoji", post.content());
@@ -104,16 +259,19 @@ public class PostServiceTest {
                 .updatedAt(LocalDateTime.now().minusHours(2))
                 .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(postRepository.findById(any())).thenReturn(Optional.of(existing));
+        when(postRepository.findWithAuthorById(any())).thenReturn(Optional.of(existing));
         when(postRepository.save(existing)).thenReturn(existing);
 
 
-        Post post = postService.editPost("session=valid", any(), new Content("new"));
+        Post post = postService.editPost(sessionJpa.toSession(), any(), new Content("new"));
 
         assertNotNull(post);
         assertEquals("new", post.content());
+        verify(postRepository).findWithAuthorById(any());
         verify(postRepository).save(existing);
+        verify(hotFeed).edit(existing);
+        verify(hotFeed, never()).put(any());
+        verifyNoMoreInteractions(postRepository, accountRepository);
     }
     @Test
     void editPost_NotOwner() {
@@ -141,11 +299,10 @@ public class PostServiceTest {
                 .updatedAt(LocalDateTime.now().minusHours(2))
                 .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(postRepository.findById(any())).thenReturn(Optional.of(existing));
+        when(postRepository.findWithAuthorById(any())).thenReturn(Optional.of(existing));
 
         assertThrows(IllegalActionException.class, () ->
-                postService.editPost("session=valid", any(), new Content("new")));
+                postService.editPost(sessionJpa.toSession(), any(), new Content("new")));
 
         verify(postRepository, never()).save(any(PostJpa.class));
     }
@@ -170,13 +327,31 @@ public class PostServiceTest {
                 .updatedAt(LocalDateTime.now().minusHours(2))
                 .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(postRepository.findById(any())).thenReturn(Optional.of(existing));
+        when(postRepository.findById(existing.getId())).thenReturn(Optional.of(existing));
 
-        postService.deletePost("session=valid", any());
+        postService.deletePost(sessionJpa.toSession(), existing.getId());
 
-        verify(postLikeRepository).deleteAllByPost(existing);
-        verify(postRepository).delete(existing);
+        // One lookup for the ownership check and one delete; the database cascades to likes and comments
+        verify(postRepository).findById(existing.getId());
+        verify(postRepository).deleteAllByIdInBatch(List.of(existing.getId()));
+        verifyNoMoreInteractions(postRepository);
+        verify(hotFeed).remove(existing.getId());
+        verify(postStatsCache).remove(existing.getId());
+    }
+
+    @Test
+    void deletePost_NotAuthor_Throws() {
+        AccountJpa owner = account();
+        AccountJpa other = account();
+        PostJpa existing = post(owner, LocalDateTime.now().minusHours(2));
+
+        when(postRepository.findById(existing.getId())).thenReturn(Optional.of(existing));
+
+        assertThrows(IllegalActionException.class, () ->
+                postService.deletePost(SessionJpa.create("token", other).toSession(), existing.getId()));
+
+        verify(postRepository, never()).deleteAllByIdInBatch(any());
+        verifyNoInteractions(hotFeed, postStatsCache);
     }
 
     @Test
@@ -197,58 +372,231 @@ public class PostServiceTest {
                 .content("post")
                 .createdAt(LocalDateTime.now().minusHours(2))
                 .updatedAt(LocalDateTime.now().minusHours(2))
+                .likeCount(3)
+                .commentCount(1)
                 .build();
 
-        when(authorizationService.validateSession("session=valid")).thenReturn(sessionJpa);
-        when(postRepository.findById(any())).thenReturn(Optional.of(existing));
-        when(postLikeRepository.countByPost(existing)).thenReturn(4L);
-        when(commentRepository.countByPostId(any())).thenReturn(1L);
+        when(postRepository.findWithAuthorById(existing.getId())).thenReturn(Optional.of(existing));
+        when(likeIngestion.likePost(existing.getId(), accountJpa.getId())).thenReturn(true);
+        when(likeCounterBuffer.pendingPostLikes(existing.getId())).thenReturn(1L);
 
-        Post post = postService.likePost("session=valid", any());
+        Post post = postService.likePost(sessionJpa.toSession(), existing.getId());
 
         assertNotNull(post);
         assertEquals(4L, post.numberOfLikes());
         assertEquals(1L, post.numberOfComments());
-        verify(postLikeRepository).save(any());
+        assertTrue(post.likedByCurrentUser());
     }
 
-
     @Test
-    void getPostStats_Success() {
-        AccountCredentials accountUpload = new AccountCredentials("eighdyy", "123");
-        AccountJpa accountJpa = AccountJpa.builder()
-                .id(UUID.randomUUID())
-                .username(accountUpload.username())
-                .hashedPassword(accountUpload.password())
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        PostJpa postJpa = PostJpa.builder()
+    void likePost_AlreadyLiked_KeepsCount() {
+        AccountJpa accountJpa = account();
+        PostJpa existing = PostJpa.builder()
                 .id(UUID.randomUUID())
                 .account(accountJpa)
                 .content("post")
                 .createdAt(LocalDateTime.now().minusHours(2))
                 .updatedAt(LocalDateTime.now().minusHours(2))
+                .likeCount(3)
                 .build();
 
-        when(authorizationService.isValidSession("session=valid")).thenReturn(true);
-        when(postRepository.findById(any())).thenReturn(Optional.of(postJpa));
-        when(postLikeRepository.countByPost(postJpa)).thenReturn(2L);
-        when(commentRepository.countByPostId(postJpa.getId())).thenReturn(2L);
+        when(postRepository.findWithAuthorById(existing.getId())).thenReturn(Optional.of(existing));
+        when(likeIngestion.likePost(existing.getId(), accountJpa.getId())).thenReturn(false);
 
-        PostStats stats = postService.getPostStats("session=valid", any());
+        Post post = postService.likePost(SessionJpa.create("token", accountJpa).toSession(), existing.getId());
+
+        assertEquals(3L, post.numberOfLikes());
+        assertTrue(post.likedByCurrentUser());
+    }
+
+    @Test
+    void likePosts_OneQueryOneInsert_PerItemResults() {
+        AccountJpa accountJpa = account();
+        PostJpa first = post(accountJpa, LocalDateTime.now().minusHours(1));
+        PostJpa second = post(accountJpa, LocalDateTime.now().minusHours(2));
+        UUID missing = UUID.randomUUID();
+
+        when(postRepository.findViewsByIds(any())).thenReturn(List.of(view(second), view(first)));
+        when(likeIngestion.likePosts(Set.of(first.getId(), second.getId()), accountJpa.getId())).thenReturn(Set.of());
+        when(likeCounterBuffer.pendingPostLikes(first.getId())).thenReturn(1L);
+
+        List<BatchItemResult<Post>> results = postService.likePosts(SessionJpa.create("token", accountJpa).toSession(),
+                List.of(first.getId(), missing, second.getId()));
+
+        assertEquals(List.of(200, 404, 200), results.stream().map(BatchItemResult::status).toList());
+        assertEquals(first.getId(), results.get(0).item().id());
+        assertEquals(1L, results.get(0).item().numberOfLikes());
+        assertTrue(results.get(0).item().likedByCurrentUser());
+        assertNull(results.get(1).item());
+        assertEquals(second.getId(), results.get(2).item().id());
+        verify(postRepository).findViewsByIds(any());
+        verifyNoMoreInteractions(postRepository);
+        verify(likeIngestion, never()).likePost(any(), any());
+    }
+
+    @Test
+    void likePosts_DeletedBeforeInsert_NotFound() {
+        AccountJpa accountJpa = account();
+        PostJpa kept = post(accountJpa, LocalDateTime.now().minusHours(1));
+        PostJpa deleted = post(accountJpa, LocalDateTime.now().minusHours(2));
+
+        when(postRepository.findViewsByIds(any())).thenReturn(List.of(view(kept), view(deleted)));
+        when(likeIngestion.likePosts(any(), eq(accountJpa.getId()))).thenReturn(Set.of(deleted.getId()));
+
+        List<BatchItemResult<Post>> results = postService.likePosts(SessionJpa.create("token", accountJpa).toSession(),
+                List.of(kept.getId(), deleted.getId()));
+
+        assertEquals(List.of(200, 404), results.stream().map(BatchItemResult::status).toList());
+        assertEquals("Post not found", results.get(1).detail());
+    }
+
+    @Test
+    void getPostsByIds_RequestOrderSkippingMissing() {
+        AccountJpa accountJpa = account();
+        PostJpa hot = post(accountJpa, LocalDateTime.now().minusMinutes(1));
+        PostJpa cold = post(accountJpa, LocalDateTime.now().minusDays(30));
+        UUID missing = UUID.randomUUID();
+
+        when(hotFeed.find(any())).thenReturn(Optional.empty());
+        when(hotFeed.find(hot.getId())).thenReturn(Optional.of(new FeedEntry(hot, 1)));
+        when(postRepository.findViewsByIds(List.of(cold.getId(), missing))).thenReturn(List.of(view(cold)));
+        when(likedSetIndex.likedPostIds(accountJpa.getId(), List.of(hot.getId()))).thenReturn(Set.of());
+        when(likedSetIndex.likedPostIds(accountJpa.getId(), List.of(cold.getId()))).thenReturn(Set.of(cold.getId()));
+
+        List<Post> posts = postService.getPostsByIds(SessionJpa.create("token", accountJpa).toSession(),
+                List.of(cold.getId(), missing, hot.getId(), cold.getId()));
+
+        assertEquals(List.of(cold.getId(), hot.getId()), posts.stream().map(Post::id).toList());
+        assertTrue(posts.get(0).likedByCurrentUser());
+        assertFalse(posts.get(1).likedByCurrentUser());
+        // One query for every post not held in memory, however many ids were asked for
+        verify(postRepository).findViewsByIds(any());
+        verifyNoMoreInteractions(postRepository);
+    }
+
+    @Test
+    void getPostsByIds_AllInHotFeed_NoQuery() {
+        AccountJpa accountJpa = account();
+        PostJpa hot = post(accountJpa, LocalDateTime.now().minusMinutes(1));
+
+        when(hotFeed.find(hot.getId())).thenReturn(Optional.of(new FeedEntry(hot, 0)));
+        when(likedSetIndex.likedPostIds(accountJpa.getId(), List.of(hot.getId()))).thenReturn(Set.of());
+
+        List<Post> posts = postService.getPostsByIds(SessionJpa.create("token", accountJpa).toSession(), List.of(hot.getId()));
+
+        assertEquals(1, posts.size());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getPost_FromDatabaseWithFirstComments() {
+        AccountJpa accountJpa = account();
+        PostJpa postJpa = post(accountJpa, LocalDateTime.now().minusHours(1));
+        Session session = SessionJpa.create("token", accountJpa).toSession();
+        Comment comment = new Comment(UUID.randomUUID(), postJpa.getId(), accountJpa.toAccount(), "comment",
+                LocalDateTime.now(), LocalDateTime.now(), 0L, false);
+
+        when(hotFeed.find(postJpa.getId())).thenReturn(Optional.empty());
+        when(postRepository.findViewById(postJpa.getId())).thenReturn(Optional.of(view(postJpa)));
+        when(likeCounterBuffer.pendingPostLikes(postJpa.getId())).thenReturn(2L);
+        when(likedSetIndex.likedPostIds(accountJpa.getId(), List.of(postJpa.getId()))).thenReturn(Set.of(postJpa.getId()));
+        when(commentService.getCommentsByPost(session, postJpa.getId(), 5, null))
+                .thenReturn(new CursorPage<>(List.of(comment), "next"));
+
+        PostDetail detail = postService.getPost(session, postJpa.getId(), 5);
+
+        assertEquals(postJpa.getId(), detail.post().id());
+        assertEquals(2L, detail.post().numberOfLikes());
+        assertTrue(detail.post().likedByCurrentUser());
+        assertEquals(List.of(comment), detail.comments());
+        assertEquals("next", detail.nextCommentsCursor());
+        verify(postRepository).findViewById(postJpa.getId());
+        verifyNoMoreInteractions(postRepository, accountRepository);
+    }
+
+    @Test
+    void getPost_FromHotFeed() {
+        AccountJpa accountJpa = account();
+        PostJpa postJpa = post(accountJpa, LocalDateTime.now().minusHours(1));
+        Session session = SessionJpa.create("token", accountJpa).toSession();
+
+        when(hotFeed.find(postJpa.getId())).thenReturn(Optional.of(new FeedEntry(postJpa, 4)));
+        when(likedSetIndex.likesPost(accountJpa.getId(), postJpa.getId())).thenReturn(false);
+        when(commentService.getCommentsByPost(session, postJpa.getId(), null, null))
+                .thenReturn(new CursorPage<>(List.of(), null));
+
+        PostDetail detail = postService.getPost(session, postJpa.getId(), null);
+
+        assertEquals(4L, detail.post().numberOfLikes());
+        assertFalse(detail.post().likedByCurrentUser());
+        assertTrue(detail.comments().isEmpty());
+        assertNull(detail.nextCommentsCursor());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getPost_PostNotFound() {
+        UUID postId = UUID.randomUUID();
+
+        when(hotFeed.find(postId)).thenReturn(Optional.empty());
+        when(postRepository.findViewById(postId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () ->
+                postService.getPost(new Session(UUID.randomUUID(), "token"), postId, null));
+
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    void getPostStats_Success() {
+        UUID postId = UUID.randomUUID();
+
+        when(postStatsCache.get(postId)).thenReturn(new PostStats(65L));
+
+        PostStats stats = postService.getPostStats(postId);
 
         assertEquals(65, stats.trendingScore());
+        verifyNoInteractions(postRepository);
     }
 
     @Test
     void getPostStats_PostNotFound() {
         UUID postId = UUID.randomUUID();
 
-        when(authorizationService.isValidSession("session=valid")).thenReturn(true);
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postStatsCache.get(postId)).thenThrow(new EntityNotFoundException("Post not found"));
 
         assertThrows(EntityNotFoundException.class, () ->
-                postService.getPostStats("session=valid", postId));
+                postService.getPostStats(postId));
+    }
+
+    private static AccountJpa account() {
+        return AccountJpa.builder()
+                .id(UUID.randomUUID())
+                .username("eighdyy")
+                .hashedPassword("123")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static PostJpa post(AccountJpa author, LocalDateTime createdAt) {
+        return PostJpa.builder()
+                .id(UUID.randomUUID())
+                .account(author)
+                .content("post")
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    private static PostView view(PostJpa postJpa) {
+        return new PostView(
+                postJpa.getId(),
+                postJpa.getAccount().toAccount(),
+                postJpa.getContent(),
+                postJpa.getLikeCount(),
+                postJpa.getCommentCount(),
+                postJpa.getCreatedAt(),
+                postJpa.getUpdatedAt()
+        );
     }
 }
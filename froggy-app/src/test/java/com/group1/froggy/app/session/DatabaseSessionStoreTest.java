@@ -0,0 +1,162 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.jpa.account.AccountJpa;
+import com.group1.froggy.jpa.account.session.SessionId;
+import com.group1.froggy.jpa.account.session.SessionJpa;
+import com.group1.froggy.jpa.account.session.SessionRepository;
+import com.group1.froggy.jpa.account.session.SessionTimestamps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseSessionStoreTest {
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    private DatabaseSessionStore store;
+
+    private final Session session = new Session(UUID.randomUUID(), "token");
+    private final SessionId sessionId = SessionJpa.createId(session.accountId(), session.token());
+
+    private final AccountJpa account = AccountJpa.builder()
+        .id(session.accountId())
+        .username("froggy")
+        .hashedPassword("hashed")
+        .build();
+
+    @BeforeEach
+    void setUp() {
+        store = store(new SessionProperties.Limits(3, false));
+    }
+
+    private DatabaseSessionStore store(SessionProperties.Limits limits) {
+        SessionProperties sessionProperties = new SessionProperties(
+            SessionProperties.Mode.DATABASE,
+            new SessionProperties.Cache(100, Duration.ofMinutes(1)),
+            null,
+            new SessionProperties.Expiry(Duration.ofMinutes(30), Duration.ofDays(7)),
+            new SessionProperties.Sweeper(true, Duration.ofMinutes(5), 1000, 100),
+            limits
+        );
+        return new DatabaseSessionStore(sessionRepository, new SessionCache(sessionProperties, new SimpleMeterRegistry()), sessionProperties);
+    }
+
+    private static SessionTimestamps timestamps(LocalDateTime createdAt, LocalDateTime lastSeenAt) {
+        return new SessionTimestamps() {
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+
+            @Override
+            public LocalDateTime getLastSeenAt() {
+                return lastSeenAt;
+            }
+        };
+    }
+
+    @Test
+    void find_RecentlySeen_DoesNotTouch() {
+        LocalDateTime now = LocalDateTime.now();
+        when(sessionRepository.findTimestampsById(sessionId)).thenReturn(Optional.of(timestamps(now.minusDays(1), now.minusMinutes(1))));
+
+        assertEquals(session, store.find(session));
+        verify(sessionRepository, never()).updateLastSeenAt(any(), any());
+    }
+
+    @Test
+    void find_StaleLastSeen_Touches() {
+        LocalDateTime now = LocalDateTime.now();
+        when(sessionRepository.findTimestampsById(sessionId)).thenReturn(Optional.of(timestamps(now.minusDays(1), now.minusMinutes(10))));
+
+        assertEquals(session, store.find(session));
+        verify(sessionRepository).updateLastSeenAt(eq(sessionId), any());
+    }
+
+    @Test
+    void find_IdleTooLong_ReturnsNull() {
+        LocalDateTime now = LocalDateTime.now();
+        when(sessionRepository.findTimestampsById(sessionId)).thenReturn(Optional.of(timestamps(now.minusHours(1), now.minusMinutes(31))));
+
+        assertNull(store.find(session));
+        verify(sessionRepository, never()).updateLastSeenAt(any(), any());
+    }
+
+    @Test
+    void find_PastAbsoluteTimeout_ReturnsNull() {
+        LocalDateTime now = LocalDateTime.now();
+        when(sessionRepository.findTimestampsById(sessionId)).thenReturn(Optional.of(timestamps(now.minusDays(8), now)));
+
+        assertNull(store.find(session));
+    }
+
+    @Test
+    void timeToLive_IsAbsoluteTimeout() {
+        assertEquals(Optional.of(Duration.ofDays(7)), store.timeToLive());
+    }
+
+    @Test
+    void create_EvictsLeastRecentlyUsedBeyondLimit() {
+        when(sessionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionRepository.findTokensByRecentUse(account.getId())).thenReturn(List.of("new", "a", "b", "c", "d"));
+
+        Session created = store.create(account);
+
+        assertEquals(account.getId(), created.accountId());
+        verify(sessionRepository).deleteAllByIdInBatch(List.of(
+            SessionJpa.createId(account.getId(), "c"),
+            SessionJpa.createId(account.getId(), "d")
+        ));
+    }
+
+    @Test
+    void create_WithinLimit_EvictsNothing() {
+        when(sessionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionRepository.findTokensByRecentUse(account.getId())).thenReturn(List.of("new", "a"));
+
+        store.create(account);
+
+        verify(sessionRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void create_ReuseExisting_ReturnsMostRecentlyUsedSession() {
+        DatabaseSessionStore reusing = store(new SessionProperties.Limits(3, true));
+        when(sessionRepository.findActiveTokens(eq(account.getId()), any(), any(), any())).thenReturn(List.of("token"));
+
+        assertEquals(session, reusing.create(account));
+
+        verify(sessionRepository).updateLastSeenAt(eq(sessionId), any());
+        verify(sessionRepository, never()).save(any());
+    }
+
+    @Test
+    void create_ReuseExisting_CreatesSessionWhenNoneActive() {
+        DatabaseSessionStore reusing = store(new SessionProperties.Limits(3, true));
+        when(sessionRepository.findActiveTokens(eq(account.getId()), any(), any(), any())).thenReturn(List.of());
+        when(sessionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Session created = reusing.create(account);
+
+        assertNotEquals(session.token(), created.token());
+        verify(sessionRepository).save(any());
+    }
+}
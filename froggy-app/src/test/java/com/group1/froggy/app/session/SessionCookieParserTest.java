@@ -0,0 +1,57 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.api.account.Session;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionCookieParserTest {
+
+    private static final UUID ACCOUNT_ID = UUID.fromString("3f2c8a4e-9b1d-4c7e-a5f0-1e2d3c4b5a69");
+
+    @Test
+    void parse_SingleCookie() {
+        assertEquals(new Session(ACCOUNT_ID, "abc+/="), SessionCookieParser.parse("session=" + ACCOUNT_ID + ":abc+/="));
+    }
+
+    @Test
+    void parse_AmongOtherCookies() {
+        String header = "theme=dark;  session=" + ACCOUNT_ID + ":token ; other=1";
+
+        assertEquals(new Session(ACCOUNT_ID, "token"), SessionCookieParser.parse(header));
+    }
+
+    @Test
+    void parse_SetCookieValue() {
+        String header = "session=" + ACCOUNT_ID + ":token; Path=/; HttpOnly";
+
+        assertEquals(new Session(ACCOUNT_ID, "token"), SessionCookieParser.parse(header));
+    }
+
+    @Test
+    void parse_UppercaseAccountId() {
+        String header = "session=" + ACCOUNT_ID.toString().toUpperCase() + ":token";
+
+        assertEquals(new Session(ACCOUNT_ID, "token"), SessionCookieParser.parse(header));
+    }
+
+    @Test
+    void parse_TokenMayContainSeparators() {
+        assertEquals(new Session(ACCOUNT_ID, "k1.a:b=c"), SessionCookieParser.parse("session=" + ACCOUNT_ID + ":k1.a:b=c"));
+    }
+
+    @Test
+    void parse_MissingOrMalformed_ReturnsNull() {
+        assertNull(SessionCookieParser.parse(null));
+        assertNull(SessionCookieParser.parse(""));
+        assertNull(SessionCookieParser.parse("theme=dark"));
+        assertNull(SessionCookieParser.parse("sessions=" + ACCOUNT_ID + ":token"));
+        assertNull(SessionCookieParser.parse("session=" + ACCOUNT_ID));
+        assertNull(SessionCookieParser.parse("session=" + ACCOUNT_ID + ":"));
+        assertNull(SessionCookieParser.parse("session=not-a-uuid:token"));
+        assertNull(SessionCookieParser.parse("session=3f2c8a4e-9b1d-4c7e-a5f0-1e2d3c4b5a6z:token"));
+        assertNull(SessionCookieParser.parse("session=3f2c8a4e9b1d-4c7e-a5f0-1e2d3c4b5a69-:token"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.jpa.account.session.SessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionSweeperTest {
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SessionSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        SessionProperties sessionProperties = new SessionProperties(
+            SessionProperties.Mode.DATABASE,
+            new SessionProperties.Cache(100, Duration.ofMinutes(1)),
+            null,
+            new SessionProperties.Expiry(Duration.ofMinutes(30), Duration.ofDays(7)),
+            new SessionProperties.Sweeper(true, Duration.ofMinutes(5), 10, 3),
+            new SessionProperties.Limits(3, false)
+        );
+        sweeper = new SessionSweeper(sessionRepository, sessionProperties, meterRegistry);
+    }
+
+    @Test
+    void sweep_StopsAfterPartialBatch() {
+        when(sessionRepository.deleteExpiredBatch(any(), any(), eq(10))).thenReturn(10, 4);
+
+        assertEquals(14, sweeper.sweep());
+
+        verify(sessionRepository, times(2)).deleteExpiredBatch(any(), any(), eq(10));
+        assertEquals(14, meterRegistry.get("froggy.session.sweeper.purged").counter().count());
+        assertEquals(1, meterRegistry.get("froggy.session.sweeper.duration").timer().count());
+    }
+
+    @Test
+    void sweep_StopsAtMaximumBatches() {
+        when(sessionRepository.deleteExpiredBatch(any(), any(), eq(10))).thenReturn(10);
+
+        assertEquals(30, sweeper.sweep());
+
+        verify(sessionRepository, times(3)).deleteExpiredBatch(any(), any(), eq(10));
+    }
+}
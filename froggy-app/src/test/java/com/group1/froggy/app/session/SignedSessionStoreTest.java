@@ -0,0 +1,147 @@
+package com.group1.froggy.app.session;
+
+import com.group1.froggy.api.account.Session;
+import com.group1.froggy.app.config.SessionProperties;
+import com.group1.froggy.app.exceptions.ServiceOverloadedException;
+import com.group1.froggy.jpa.account.AccountJpa;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignedSessionStoreTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String KEY_2 = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+
+    private final AccountJpa account = AccountJpa.builder()
+        .id(UUID.randomUUID())
+        .username("froggy")
+        .hashedPassword("hashed")
+        .build();
+
+    private static SignedSessionStore store(String activeKeyId, Map<String, String> keys, Clock clock) {
+        return store(activeKeyId, keys, clock, 100, 100);
+    }
+
+    private static SignedSessionStore store(String activeKeyId, Map<String, String> keys, Clock clock,
+                                            long maximumRevokedTokens, long maximumRevokedAccounts) {
+        return new SignedSessionStore(new SessionProperties.Signed(activeKeyId, keys, Duration.ofHours(1),
+            maximumRevokedTokens, maximumRevokedAccounts), clock);
+    }
+
+    @Test
+    void create_ThenFind_Succeeds() {
+        SignedSessionStore store = store("k1", Map.of("k1", KEY_1), Clock.systemUTC());
+
+        Session session = store.create(account);
+
+        assertEquals(account.getId(), session.accountId());
+        assertEquals(session, store.find(session));
+    }
+
+    @Test
+    void find_TamperedToken_ReturnsNull() {
+        SignedSessionStore store = store("k1", Map.of("k1", KEY_1), Clock.systemUTC());
+        Session session = store.create(account);
+
+        String token = session.token();
+        int index = token.indexOf('.') + 5;
+        char replacement = token.charAt(index) == 'A' ? 'B' : 'A';
+        Session tampered = new Session(account.getId(), token.substring(0, index) + replacement + token.substring(index + 1));
+
+        assertNull(store.find(tampered));
+        assertNull(store.find(new Session(UUID.randomUUID(), token)));
+        assertNull(store.find(new Session(account.getId(), "not-a-token")));
+    }
+
+    @Test
+    void find_ExpiredToken_ReturnsNull() {
+        Instant issued = Instant.parse("2024-01-01T00:00:00Z");
+        Session session = store("k1", Map.of("k1", KEY_1), Clock.fixed(issued, ZoneOffset.UTC)).create(account);
+
+        SignedSessionStore later = store("k1", Map.of("k1", KEY_1), Clock.fixed(issued.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        assertNull(later.find(session));
+    }
+
+    @Test
+    void find_RotatedKey_AcceptsOldTokensUntilKeyRemoved() {
+        Session oldSession = store("k1", Map.of("k1", KEY_1), Clock.systemUTC()).create(account);
+
+        SignedSessionStore rotated = store("k2", Map.of("k1", KEY_1, "k2", KEY_2), Clock.systemUTC());
+        assertEquals(oldSession, rotated.find(oldSession));
+        assertTrue(rotated.create(account).token().startsWith("k2."));
+
+        SignedSessionStore retired = store("k2", Map.of("k2", KEY_2), Clock.systemUTC());
+        assertNull(retired.find(oldSession));
+    }
+
+    @Test
+    void revoke_RejectsOnlyThatToken() {
+        SignedSessionStore store = store("k1", Map.of("k1", KEY_1), Clock.systemUTC());
+        Session first = store.create(account);
+        Session second = store.create(account);
+
+        assertTrue(store.revoke(first));
+
+        assertNull(store.find(first));
+        assertFalse(store.revoke(first));
+        assertEquals(second, store.find(second));
+    }
+
+    @Test
+    void revoke_MoreThanMaximum_AllStayRejected() {
+        SignedSessionStore store = store("k1", Map.of("k1", KEY_1), Clock.systemUTC(), 3, 100);
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sessions.add(store.create(account));
+        }
+
+        // Past the maximum a logout revokes the whole account, so later revokes find nothing left to revoke
+        for (Session session : sessions) {
+            store.revoke(session);
+        }
+
+        for (Session session : sessions) {
+            assertNull(store.find(session));
+        }
+    }
+
+    @Test
+    void revokeAll_AccountListFull_RefusesNewAccounts() {
+        SignedSessionStore store = store("k1", Map.of("k1", KEY_1), Clock.systemUTC(), 100, 1);
+        Session session = store.create(account);
+        store.revokeAll(UUID.randomUUID());
+
+        assertThrows(ServiceOverloadedException.class, () -> store.revokeAll(account.getId()));
+        assertEquals(session, store.find(session));
+    }
+
+    @Test
+    void revokeAll_RejectsEarlierTokens() {
+        Instant issued = Instant.parse("2024-01-01T00:00:00Z");
+        Clock clock = Clock.fixed(issued, ZoneOffset.UTC);
+        SignedSessionStore store = store("k1", Map.of("k1", KEY_1), clock);
+        Session session = store.create(account);
+
+        store.revokeAll(account.getId());
+
+        assertNull(store.find(session));
+    }
+
+    @Test
+    void constructor_UnknownActiveKey_Throws() {
+        assertThrows(IllegalStateException.class, () -> store("missing", Map.of("k1", KEY_1), Clock.systemUTC()));
+        assertThrows(IllegalStateException.class, () -> store("short", Map.of("short", "c2hvcnQ="), Clock.systemUTC()));
+    }
+}
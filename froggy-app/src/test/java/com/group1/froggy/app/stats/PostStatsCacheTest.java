@@ -0,0 +1,155 @@
+package com.group1.froggy.app.stats;
+
+import com.group1.froggy.api.post.PostStats;
+import com.group1.froggy.app.config.PostStatsProperties;
+import com.group1.froggy.app.config.TrendingScoreProperties;
+import com.group1.froggy.app.counters.LikeCounterBuffer;
+import com.group1.froggy.jpa.post.PostEngagement;
+import com.group1.froggy.jpa.post.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostStatsCacheTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private LikeCounterBuffer likeCounterBuffer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PostStatsCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    void get_ComputesOnceAndServesFromMemory() {
+        cache = cache(true);
+        UUID postId = UUID.randomUUID();
+        when(postRepository.findEngagementById(postId)).thenReturn(Optional.of(new PostEngagement(postId, 2, 2)));
+
+        assertEquals(65, cache.get(postId).trendingScore());
+        assertEquals(65, cache.get(postId).trendingScore());
+
+        verify(postRepository, times(1)).findEngagementById(postId);
+    }
+
+    @Test
+    void get_AddsPendingLikes() {
+        cache = cache(true);
+        UUID postId = UUID.randomUUID();
+        when(postRepository.findEngagementById(postId)).thenReturn(Optional.of(new PostEngagement(postId, 1, 2)));
+        when(likeCounterBuffer.pendingPostLikes(postId)).thenReturn(1L);
+
+        assertEquals(65, cache.get(postId).trendingScore());
+    }
+
+    @Test
+    void get_PostNotFound() {
+        cache = cache(true);
+        UUID postId = UUID.randomUUID();
+        when(postRepository.findEngagementById(postId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> cache.get(postId));
+    }
+
+    @Test
+    void changed_NotCountedAsCacheLookup() {
+        cache = cache(true);
+        UUID postId = UUID.randomUUID();
+        when(postRepository.findEngagementById(postId)).thenReturn(Optional.of(new PostEngagement(postId, 2, 2)));
+        cache.get(postId);
+
+        cache.changed(postId);
+        cache.changed(UUID.randomUUID());
+
+        assertEquals(0, meterRegistry.get("cache.gets").tag("cache", PostStatsCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", PostStatsCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void recompute_CoalescesChangesIntoOneQuery() {
+        cache = cache(true);
+        UUID postId = UUID.randomUUID();
+        UUID uncached = UUID.randomUUID();
+        when(postRepository.findEngagementById(postId)).thenReturn(Optional.of(new PostEngagement(postId, 2, 2)));
+        cache.get(postId);
+
+        cache.changed(postId);
+        cache.changed(postId);
+        cache.changed(postId);
+        cache.changed(uncached);
+        when(postRepository.findEngagementByIdIn(List.of(postId))).thenReturn(List.of(new PostEngagement(postId, 3, 2)));
+
+        assertEquals(1, cache.recompute());
+        assertEquals(new PostStats(78L), cache.get(postId));
+        assertEquals(0, cache.recompute());
+        verify(postRepository, times(1)).findEngagementByIdIn(any());
+        verify(postRepository, times(1)).findEngagementById(any());
+    }
+
+    @Test
+    void recompute_DropsDeletedPosts() {
+        cache = cache(true);
+        UUID postId = UUID.randomUUID();
+        when(postRepository.findEngagementById(postId))
+            .thenReturn(Optional.of(new PostEngagement(postId, 2, 2)))
+            .thenReturn(Optional.empty());
+        cache.get(postId);
+
+        cache.changed(postId);
+        when(postRepository.findEngagementByIdIn(List.of(postId))).thenReturn(List.of());
+        cache.recompute();
+
+        assertThrows(EntityNotFoundException.class, () -> cache.get(postId));
+    }
+
+    @Test
+    void get_DisabledComputesEveryTime() {
+        cache = cache(false);
+        UUID postId = UUID.randomUUID();
+        when(postRepository.findEngagementById(postId)).thenReturn(Optional.of(new PostEngagement(postId, 2, 2)));
+
+        cache.get(postId);
+        cache.get(postId);
+        cache.changed(postId);
+
+        assertEquals(0, cache.recompute());
+        verify(postRepository, times(2)).findEngagementById(postId);
+    }
+
+    private PostStatsCache cache(boolean enabled) {
+        return new PostStatsCache(
+            postRepository,
+            likeCounterBuffer,
+            new TrendingScores(new TrendingScoreProperties(64, 1024), meterRegistry),
+            transactionManager,
+            new PostStatsProperties(enabled, 100, Duration.ofHours(1), Duration.ofHours(1), 10),
+            meterRegistry
+        );
+    }
+}
@@ -0,0 +1,113 @@
+package com.group1.froggy.app.stats;
+
+import com.group1.froggy.app.config.TrendingScoreProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrendingScoresTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void score_MatchesSequenceInsideAndBeyondTable() {
+        TrendingScores scores = scores(16, 4096);
+        long[] expected = reference(20_000);
+
+        for (int n = 0; n < expected.length; n++) {
+            assertEquals(expected[n], scores.score(n), "n = " + n);
+        }
+        assertEquals(4096, meterRegistry.get("froggy.trending.memo.size").gauge().value());
+    }
+
+    @Test
+    void score_KnownValues() {
+        TrendingScores scores = scores(0, 1024);
+
+        assertEquals(65, scores.score(14));
+        assertEquals(11, scores.score(11));
+        assertEquals(reference(100_003)[100_003], scores.score(100_003));
+    }
+
+    @Test
+    void score_GrowsTableWhenLargerIndexArrives() {
+        TrendingScores scores = scores(16, 1 << 20);
+
+        assertEquals(16, meterRegistry.get("froggy.trending.memo.size").gauge().value());
+        assertEquals(reference(50_000)[50_000], scores.score(50_000));
+        assertEquals(50_000, meterRegistry.get("froggy.trending.memo.size").gauge().value());
+        assertEquals(reference(60_000)[60_000], scores.score(60_000));
+        assertEquals(100_000, meterRegistry.get("froggy.trending.memo.size").gauge().value());
+    }
+
+    @Test
+    void score_ConcurrentGrowthAgreesWithSequence() throws Exception {
+        TrendingScores scores = scores(16, 1 << 16);
+        long[] expected = reference(100_000);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        int n = ThreadLocalRandom.current().nextInt(expected.length);
+                        assertEquals(expected[n], scores.score(n), "n = " + n);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    @Test
+    void score_BeyondSquareOfMaximumMemoSize_SievesMorePrimes() {
+        TrendingScores scores = scores(0, 100);
+        long[] expected = reference(10_500);
+
+        // 10_000 is the last index the table's own primes can sieve; 10_201 = 101 * 101 needs a prime past them
+        for (int n = 9_990; n < expected.length; n++) {
+            assertEquals(expected[n], scores.score(n), "n = " + n);
+        }
+        assertEquals(100, meterRegistry.get("froggy.trending.memo.size").gauge().value());
+    }
+
+    private TrendingScores scores(int initialMemoSize, int maximumMemoSize) {
+        return new TrendingScores(new TrendingScoreProperties(initialMemoSize, maximumMemoSize), meterRegistry);
+    }
+
+    /**
+     * The sequence up to n computed index by index with trial division, as it was before the table existed.
+     */
+    private static long[] reference(int n) {
+        long[] sequence = new long[n + 1];
+        for (int i = 0; i <= n; i++) {
+            sequence[i] = i <= 1 || isPrime(i) ? i : sequence[i - 1] + sequence[i - 2];
+        }
+        return sequence;
+    }
+
+    private static boolean isPrime(long num) {
+        if (num <= 3) {
+            return num > 1;
+        }
+        if (num % 2 == 0 || num % 3 == 0) {
+            return false;
+        }
+        for (long i = 5; i * i <= num; i += 6) {
+            if (num % i == 0 || num % (i + 2) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.group1.froggy.jpa;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * The order PostgreSQL sorts {@code uuid} values in.
+ *
+ * <p>PostgreSQL compares the 16 bytes unsigned, while {@link UUID#compareTo} compares the two halves as signed
+ * longs, so the two disagree whenever a half has its top bit set. Statements that lock rows one by one from Java
+ * sort with this comparator so they take locks in the same order as statements that lock with
+ * {@code order by id}, and cannot deadlock against them.</p>
+ */
+public final class UuidOrder {
+
+    public static final Comparator<UUID> DATABASE = (left, right) -> {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    };
+
+    private UuidOrder() { }
+}
@@ -1,10 +1,17 @@
 package com.group1.froggy.jpa.account;
 
+import com.group1.froggy.api.account.Account;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<AccountJpa, UUID> {
@@ -12,4 +19,22 @@ public interface AccountRepository extends JpaRepository<AccountJpa, UUID> {
     Optional<AccountJpa> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    /**
+     * Read an account straight into its API record, without hydrating the entity.
+     */
+    @Query("select new com.group1.froggy.api.account.Account(a.id, a.username, a.createdAt) from AccountJpa a where a.id = :id")
+    Optional<Account> findAccountById(UUID id);
+
+    /**
+     * Stream every username without loading the accounts. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select a.username from AccountJpa a")
+    Stream<String> streamAllUsernames();
+
+    @Transactional
+    @Modifying
+    @Query("update AccountJpa a set a.hashedPassword = :hashedPassword where a.id = :id")
+    int updateHashedPassword(UUID id, String hashedPassword);
 }
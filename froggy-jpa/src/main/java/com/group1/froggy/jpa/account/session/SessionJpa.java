@@ -23,21 +23,28 @@ public class SessionJpa {
     @EmbeddedId
     private SessionId id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("accountId")
     @JoinColumn(name = "account_id")
     @NonNull
+    @ToString.Exclude
     private AccountJpa account;
 
     @NonNull
     @Column
     private LocalDateTime createdAt;
 
+    @NonNull
+    @Column
+    private LocalDateTime lastSeenAt;
+
     public static SessionJpa create(String token, AccountJpa account) {
+        LocalDateTime now = LocalDateTime.now();
         return SessionJpa.builder()
             .id(new SessionId(token, account.getId()))
             .account(account)
-            .createdAt(LocalDateTime.now())
+            .createdAt(now)
+            .lastSeenAt(now)
             .build();
     }
 
@@ -50,7 +57,7 @@ public class SessionJpa {
     }
 
     public Session toSession() {
-        return new Session(account.getId(), id.getToken());
+        return new Session(id.getAccountId(), id.getToken());
     }
 
     @Override
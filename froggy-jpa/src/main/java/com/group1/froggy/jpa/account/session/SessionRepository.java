@@ -1,8 +1,15 @@
 package com.group1.froggy.jpa.account.session;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -10,8 +17,53 @@ public interface SessionRepository extends JpaRepository<SessionJpa, SessionId>
 
     boolean existsByIdAccountIdAndIdToken(UUID accountId, String token);
 
+    @Transactional
+    @Modifying
+    @Query("delete from SessionJpa s where s.id.accountId = :accountId")
     void deleteAllByIdAccountId(UUID accountId);
 
+    /**
+     * @return tokens of the account's sessions, most recently used first
+     */
+    @Query("select s.id.token from SessionJpa s where s.id.accountId = :accountId order by s.lastSeenAt desc, s.createdAt desc")
+    List<String> findTokensByRecentUse(UUID accountId);
+
+    /**
+     * @return tokens of the account's sessions that have not expired, most recently used first
+     */
+    @Query("""
+        select s.id.token from SessionJpa s
+        where s.id.accountId = :accountId and s.lastSeenAt >= :idleCutoff and s.createdAt >= :absoluteCutoff
+        order by s.lastSeenAt desc
+        """)
+    List<String> findActiveTokens(UUID accountId, LocalDateTime idleCutoff, LocalDateTime absoluteCutoff, Pageable pageable);
+
+    Optional<SessionTimestamps> findTimestampsById(SessionId id);
+
+    @Transactional
+    @Modifying
+    @Query("update SessionJpa s set s.lastSeenAt = :lastSeenAt where s.id = :id")
+    int updateLastSeenAt(SessionId id, LocalDateTime lastSeenAt);
+
+    /**
+     * Delete up to {@code batchSize} sessions that were idle since {@code idleCutoff} or created before
+     * {@code absoluteCutoff}. Each call is its own short transaction.
+     *
+     * @return the number of sessions deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        delete from session
+        where (token, account_id) in (
+            select token, account_id
+            from session
+            where last_seen_at < :idleCutoff or created_at < :absoluteCutoff
+            limit :batchSize
+        )
+        """, nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime idleCutoff, LocalDateTime absoluteCutoff, int batchSize);
+
     default boolean sessionExists(UUID accountId, String token) {
         return existsByIdAccountIdAndIdToken(accountId, token);
     }
@@ -0,0 +1,13 @@
+package com.group1.froggy.jpa.account.session;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the columns needed to decide whether a session has expired.
+ */
+public interface SessionTimestamps {
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getLastSeenAt();
+}
@@ -0,0 +1,43 @@
+package com.group1.froggy.jpa.post;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batched counter writes for {@link PostRepository}, which Spring Data cannot express as a derived or
+ * {@code @Query} method.
+ *
+ * <p>Every method locks post rows in id order, as PostgreSQL orders uuids, so that flushes, comment batches and
+ * repairs running at the same time lock them in the same order and cannot deadlock.</p>
+ */
+public interface PostCounterBatchUpdate {
+
+    /**
+     * Add each delta to its post's like counter, as one JDBC batch in the caller's transaction.
+     *
+     * @param deltas likes to add, keyed by post id
+     */
+    void addToLikeCounts(Map<UUID, Long> deltas);
+
+    /**
+     * Add each delta to its post's comment counter, as one JDBC batch in the caller's transaction. Posts that do
+     * not exist are skipped, so the update doubles as an existence check.
+     *
+     * @param deltas comments to add, keyed by post id
+     * @return the ids of the posts that were updated
+     */
+    Set<UUID> addToCommentCounts(Map<UUID, Long> deltas);
+
+    /**
+     * Recount likes and comments for the given posts and fix the rows whose counters have drifted, in one
+     * statement.
+     *
+     * @param postIds posts to recount
+     * @param pendingLikes likes already in the like table but not yet added to the counter, keyed by post id; they
+     *                     are left out of the recount so that flushing them later does not count them twice
+     * @return the number of rows that were corrected
+     */
+    int repairCounters(Collection<UUID> postIds, Map<UUID, Long> pendingLikes);
+}
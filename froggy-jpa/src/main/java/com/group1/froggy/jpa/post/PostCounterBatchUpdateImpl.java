@@ -0,0 +1,92 @@
+package com.group1.froggy.jpa.post;
+
+import com.group1.froggy.jpa.UuidOrder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class PostCounterBatchUpdateImpl implements PostCounterBatchUpdate {
+
+    // Rows are locked up front in id order, the order the batched updates use
+    private static final String REPAIR = """
+        with locked as (
+            select id from post where id = any(?) order by id for update
+        ), actual as (
+            select locked.id,
+                   (select count(*) from post_like l where l.post_id = locked.id) - coalesce(pending.likes, 0) as likes,
+                   (select count(*) from comment c where c.post_id = locked.id) as comments
+            from locked
+            left join unnest(?, ?) as pending(id, likes) on pending.id = locked.id
+        )
+        update post p
+        set like_count = actual.likes, comment_count = actual.comments
+        from actual
+        where p.id = actual.id
+          and (p.like_count <> actual.likes or p.comment_count <> actual.comments)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addToLikeCounts(Map<UUID, Long> deltas) {
+        jdbcTemplate.batchUpdate(
+            "update post set like_count = like_count + ? where id = ?",
+            inDatabaseOrder(deltas).stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList()
+        );
+    }
+
+    @Override
+    public Set<UUID> addToCommentCounts(Map<UUID, Long> deltas) {
+        List<Map.Entry<UUID, Long>> sorted = inDatabaseOrder(deltas);
+        int[] updated = jdbcTemplate.batchUpdate(
+            "update post set comment_count = comment_count + ? where id = ?",
+            sorted.stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList()
+        );
+
+        Set<UUID> found = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                found.add(sorted.get(i).getKey());
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public int repairCounters(Collection<UUID> postIds, Map<UUID, Long> pendingLikes) {
+        UUID[] pendingIds = new UUID[pendingLikes.size()];
+        Long[] pendingCounts = new Long[pendingLikes.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Long> pending : pendingLikes.entrySet()) {
+            pendingIds[i] = pending.getKey();
+            pendingCounts[i] = pending.getValue();
+            i++;
+        }
+
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REPAIR);
+            statement.setArray(1, connection.createArrayOf("uuid", postIds.toArray()));
+            statement.setArray(2, connection.createArrayOf("uuid", pendingIds));
+            statement.setArray(3, connection.createArrayOf("bigint", pendingCounts));
+            return statement;
+        });
+    }
+
+    private static List<Map.Entry<UUID, Long>> inDatabaseOrder(Map<UUID, Long> deltas) {
+        return deltas.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey(UuidOrder.DATABASE))
+            .toList();
+    }
+}
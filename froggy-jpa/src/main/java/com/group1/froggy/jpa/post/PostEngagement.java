@@ -0,0 +1,12 @@
+package com.group1.froggy.jpa.post;
+
+import java.util.UUID;
+
+/**
+ * Read-only like and comment counters of a post, built straight from a JPQL constructor expression.
+ */
+public record PostEngagement(
+    UUID id,
+    long likeCount,
+    long commentCount
+) { }
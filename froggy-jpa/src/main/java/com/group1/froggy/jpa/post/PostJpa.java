@@ -8,6 +8,7 @@ import lombok.*;
 import org.hibernate.Hibernate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -18,17 +19,24 @@ import java.util.UUID;
 @Builder
 @ToString
 @Table(name = "post")
+@NamedEntityGraph(name = PostJpa.WITH_AUTHOR, attributeNodes = @NamedAttributeNode("account"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class PostJpa {
 
+    /**
+     * Entity graph that loads the author together with the post, for calls that render it.
+     */
+    public static final String WITH_AUTHOR = "PostJpa.withAuthor";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     @NonNull
+    @ToString.Exclude
     private AccountJpa account;
 
     @Setter
@@ -45,13 +53,26 @@ public class PostJpa {
     @NonNull
     private LocalDateTime updatedAt;
 
+    /**
+     * Maintained with atomic increments by {@link PostRepository#addToLikeCount}, never written through the entity.
+     */
+    @Column(insertable = false, updatable = false)
+    private long likeCount;
+
+    /**
+     * Maintained with atomic increments by {@link PostRepository#addToCommentCount}, never written through the entity.
+     */
+    @Column(insertable = false, updatable = false)
+    private long commentCount;
+
     @Builder.Default
     @OneToMany(mappedBy = "post", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     @ToString.Exclude
     private List<CommentJpa> comments = new ArrayList<>();
 
     public static PostJpa create(AccountJpa account, Content content) {
-        LocalDateTime createdAt = LocalDateTime.now();
+        // PostgreSQL keeps microseconds, so the in-memory copy must not carry more precision than the stored row
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
         return PostJpa.builder()
             .account(account)
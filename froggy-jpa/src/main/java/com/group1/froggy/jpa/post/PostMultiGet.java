@@ -0,0 +1,21 @@
+package com.group1.froggy.jpa.post;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads several posts by id for {@link PostRepository}. A JPQL {@code in} list expands to one bind parameter per
+ * id, so every list length would be a different statement; a single array parameter keeps one shape.
+ */
+public interface PostMultiGet {
+
+    /**
+     * Posts with their authors for the given ids, in one {@code where id = any(?)} statement. Ids without a post
+     * are left out.
+     *
+     * @param ids ids of the posts to read
+     * @return the posts found, in no particular order
+     */
+    List<PostView> findViewsByIds(Collection<UUID> ids);
+}
@@ -0,0 +1,56 @@
+package com.group1.froggy.jpa.post;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class PostMultiGetImpl implements PostMultiGet {
+
+    // One statement shape for every number of ids, so the server can reuse the prepared plan
+    private static final String SELECT = """
+        select p.id, a.id, a.username, a.created_at, p.content, p.like_count, p.comment_count, p.created_at, p.updated_at
+        from post p
+        join account a on a.id = p.account_id
+        where p.id = any(?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<PostView> findViewsByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        UUID[] array = ids.toArray(UUID[]::new);
+        List<PostView> posts = new ArrayList<>(array.length);
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT);
+                statement.setArray(1, connection.createArrayOf("uuid", array));
+                return statement;
+            },
+            row -> {
+                posts.add(new PostView(
+                    row.getObject(1, UUID.class),
+                    row.getObject(2, UUID.class),
+                    row.getString(3),
+                    row.getObject(4, LocalDateTime.class),
+                    row.getString(5),
+                    row.getLong(6),
+                    row.getLong(7),
+                    row.getObject(8, LocalDateTime.class),
+                    row.getObject(9, LocalDateTime.class)
+                ));
+            }
+        );
+        return posts;
+    }
+}
@@ -1,16 +1,98 @@
 package com.group1.froggy.jpa.post;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PostRepository extends JpaRepository<PostJpa, UUID> {
+public interface PostRepository extends JpaRepository<PostJpa, UUID>, PostCounterBatchUpdate, PostMultiGet {
 
-    @Query("select p from PostJpa p order by p.createdAt desc")
-    List<PostJpa> findLatestPosts(Pageable pageable);
+    /**
+     * Load a post together with its author, for calls that render the post. Plain {@link #findById} leaves the
+     * author unloaded, which is enough for ownership checks.
+     */
+    @EntityGraph(PostJpa.WITH_AUTHOR)
+    Optional<PostJpa> findWithAuthorById(UUID id);
+
+    /**
+     * One post with its author, read as a {@link PostView} in one query.
+     */
+    @Query("""
+        select new com.group1.froggy.jpa.post.PostView(
+            p.id, a.id, a.username, a.createdAt, p.content, p.likeCount, p.commentCount, p.createdAt, p.updatedAt)
+        from PostJpa p join p.account a
+        where p.id = :id
+        """)
+    Optional<PostView> findViewById(UUID id);
+
+    /**
+     * Newest posts first with their authors, skipping {@code skip} rows. Kept for offset pagination; deep offsets
+     * still have to walk past every skipped row, so prefer {@link #findLatestPostsBefore}.
+     */
+    @Query("""
+        select new com.group1.froggy.jpa.post.PostView(
+            p.id, a.id, a.username, a.createdAt, p.content, p.likeCount, p.commentCount, p.createdAt, p.updatedAt)
+        from PostJpa p join p.account a
+        order by p.createdAt desc, p.id desc
+        limit :size offset :skip
+        """)
+    List<PostView> findLatestPosts(int skip, int size);
+
+    /**
+     * Newest posts with their authors strictly after the given {@code (createdAt, id)} position in feed order. The
+     * leading {@code createdAt <=} bound lets the planner seek on {@code idx_post_created_at_id}.
+     */
+    @Query("""
+        select new com.group1.froggy.jpa.post.PostView(
+            p.id, a.id, a.username, a.createdAt, p.content, p.likeCount, p.commentCount, p.createdAt, p.updatedAt)
+        from PostJpa p join p.account a
+        where p.createdAt <= :createdAt and (p.createdAt < :createdAt or p.id < :id)
+        order by p.createdAt desc, p.id desc
+        """)
+    List<PostView> findLatestPostsBefore(LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    /**
+     * Like and comment counters of a post, without loading the entity.
+     */
+    @Query("select new com.group1.froggy.jpa.post.PostEngagement(p.id, p.likeCount, p.commentCount) from PostJpa p where p.id = :id")
+    Optional<PostEngagement> findEngagementById(UUID id);
+
+    /**
+     * Like and comment counters of several posts in one query. Posts that do not exist are left out.
+     */
+    @Query("select new com.group1.froggy.jpa.post.PostEngagement(p.id, p.likeCount, p.commentCount) from PostJpa p where p.id in :ids")
+    List<PostEngagement> findEngagementByIdIn(Collection<UUID> ids);
+
+    /**
+     * Atomically adjust the denormalized like counter. Runs as plain SQL so concurrent likes never overwrite
+     * each other, and the managed entity's copy of the counter is left untouched.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update post set like_count = like_count + :delta where id = :postId", nativeQuery = true)
+    int addToLikeCount(UUID postId, long delta);
+
+    /**
+     * Atomically adjust the denormalized comment counter, see {@link #addToLikeCount}.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update post set comment_count = comment_count + :delta where id = :postId", nativeQuery = true)
+    int addToCommentCount(UUID postId, long delta);
+
+    /**
+     * Post ids in id order after {@code after}, used to walk the table in batches.
+     */
+    @Query("select p.id from PostJpa p where p.id > :after order by p.id")
+    List<UUID> findIdsAfter(UUID after, Pageable pageable);
 }
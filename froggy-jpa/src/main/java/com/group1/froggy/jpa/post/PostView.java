@@ -0,0 +1,38 @@
+package com.group1.froggy.jpa.post;
+
+import com.group1.froggy.api.account.Account;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only row of a post and its author, built straight from a JPQL constructor expression. No entity is
+ * hydrated or tracked by the persistence context.
+ */
+public record PostView(
+    UUID id,
+    Account author,
+    String content,
+    long likeCount,
+    long commentCount,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+
+    /**
+     * Flat form used by the queries, since constructor expressions cannot nest.
+     */
+    public PostView(
+        UUID id,
+        UUID authorId,
+        String authorUsername,
+        LocalDateTime authorCreatedAt,
+        String content,
+        long likeCount,
+        long commentCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+    ) {
+        this(id, new Account(authorId, authorUsername, authorCreatedAt), content, likeCount, commentCount, createdAt, updatedAt);
+    }
+}
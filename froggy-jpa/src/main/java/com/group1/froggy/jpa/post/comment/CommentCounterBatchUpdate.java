@@ -0,0 +1,32 @@
+package com.group1.froggy.jpa.post.comment;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Batched counter writes for {@link CommentRepository}, which Spring Data cannot express as a derived or
+ * {@code @Query} method.
+ *
+ * <p>Both methods lock comment rows in id order, as PostgreSQL orders uuids, so that flushes and repairs running
+ * at the same time cannot deadlock.</p>
+ */
+public interface CommentCounterBatchUpdate {
+
+    /**
+     * Add each delta to its comment's like counter, as one JDBC batch in the caller's transaction.
+     *
+     * @param deltas likes to add, keyed by comment id
+     */
+    void addToLikeCounts(Map<UUID, Long> deltas);
+
+    /**
+     * Recount likes for the given comments and fix the rows whose counter has drifted, in one statement.
+     *
+     * @param commentIds comments to recount
+     * @param pendingLikes likes already in the like table but not yet added to the counter, keyed by comment id;
+     *                     they are left out of the recount so that flushing them later does not count them twice
+     * @return the number of rows that were corrected
+     */
+    int repairCounters(Collection<UUID> commentIds, Map<UUID, Long> pendingLikes);
+}
@@ -0,0 +1,64 @@
+package com.group1.froggy.jpa.post.comment;
+
+import com.group1.froggy.jpa.UuidOrder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class CommentCounterBatchUpdateImpl implements CommentCounterBatchUpdate {
+
+    // Rows are locked up front in id order, the order the batched updates use
+    private static final String REPAIR = """
+        with locked as (
+            select id from comment where id = any(?) order by id for update
+        ), actual as (
+            select locked.id,
+                   (select count(*) from comment_like l where l.comment_id = locked.id) - coalesce(pending.likes, 0) as likes
+            from locked
+            left join unnest(?, ?) as pending(id, likes) on pending.id = locked.id
+        )
+        update comment c
+        set like_count = actual.likes
+        from actual
+        where c.id = actual.id
+          and c.like_count <> actual.likes
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addToLikeCounts(Map<UUID, Long> deltas) {
+        jdbcTemplate.batchUpdate(
+            "update comment set like_count = like_count + ? where id = ?",
+            deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(UuidOrder.DATABASE))
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList()
+        );
+    }
+
+    @Override
+    public int repairCounters(Collection<UUID> commentIds, Map<UUID, Long> pendingLikes) {
+        UUID[] pendingIds = new UUID[pendingLikes.size()];
+        Long[] pendingCounts = new Long[pendingLikes.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Long> pending : pendingLikes.entrySet()) {
+            pendingIds[i] = pending.getKey();
+            pendingCounts[i] = pending.getValue();
+            i++;
+        }
+
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REPAIR);
+            statement.setArray(1, connection.createArrayOf("uuid", commentIds.toArray()));
+            statement.setArray(2, connection.createArrayOf("uuid", pendingIds));
+            statement.setArray(3, connection.createArrayOf("bigint", pendingCounts));
+            return statement;
+        });
+    }
+}
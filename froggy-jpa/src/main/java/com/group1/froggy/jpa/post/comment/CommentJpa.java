@@ -9,6 +9,7 @@ import lombok.*;
 import org.hibernate.Hibernate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -17,22 +18,31 @@ import java.util.UUID;
 @Builder
 @ToString
 @Table(name = "comment")
+@NamedEntityGraph(name = CommentJpa.WITH_AUTHOR, attributeNodes = @NamedAttributeNode("account"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class CommentJpa {
 
+    /**
+     * Entity graph that loads the author together with the comment, for calls that render it. The post is never
+     * needed beyond its id, which the lazy reference already holds.
+     */
+    public static final String WITH_AUTHOR = "CommentJpa.withAuthor";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     @NonNull
+    @ToString.Exclude
     private PostJpa post;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     @NonNull
+    @ToString.Exclude
     private AccountJpa account;
 
     @Setter
@@ -49,8 +59,15 @@ public class CommentJpa {
     @NonNull
     private LocalDateTime updatedAt;
 
+    /**
+     * Maintained with atomic increments by {@link CommentRepository#addToLikeCount}, never written through the entity.
+     */
+    @Column(insertable = false, updatable = false)
+    private long likeCount;
+
     public static CommentJpa create(PostJpa post, AccountJpa account, Content content) {
-        LocalDateTime createdAt = LocalDateTime.now();
+        // PostgreSQL keeps microseconds, so the in-memory copy must not carry more precision than the stored row
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
         return CommentJpa.builder()
             .post(post)
@@ -0,0 +1,23 @@
+package com.group1.froggy.jpa.post.comment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-post top-N comment reads for {@link CommentRepository}, which JPQL cannot express because it has no
+ * {@code LATERAL} join.
+ */
+public interface CommentPreviews {
+
+    /**
+     * The newest {@code perPost} comments on each of the given posts, with their authors, in one statement. Each
+     * post seeks on {@code idx_comment_post_id_created_at_id} and stops after {@code perPost} rows, however many
+     * comments it has.
+     *
+     * @param postIds posts to read comments for
+     * @param perPost most comments to read per post
+     * @return the comments in the order of {@code postIds}, newest first within each post
+     */
+    List<CommentView> findNewestByPostIds(Collection<UUID> postIds, int perPost);
+}
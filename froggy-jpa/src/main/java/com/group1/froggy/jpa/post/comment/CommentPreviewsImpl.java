@@ -0,0 +1,64 @@
+package com.group1.froggy.jpa.post.comment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class CommentPreviewsImpl implements CommentPreviews {
+
+    // One statement shape for every page size, so the server can reuse the prepared plan
+    private static final String SELECT = """
+        select c.id, c.post_id, a.id, a.username, a.created_at, c.content, c.like_count, c.created_at, c.updated_at
+        from unnest(?) with ordinality as p(id, position)
+        cross join lateral (
+            select id, post_id, account_id, content, like_count, created_at, updated_at
+            from comment
+            where comment.post_id = p.id
+            order by created_at desc, id desc
+            limit ?
+        ) c
+        join account a on a.id = c.account_id
+        order by p.position, c.created_at desc, c.id desc
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<CommentView> findNewestByPostIds(Collection<UUID> postIds, int perPost) {
+        if (postIds.isEmpty() || perPost <= 0) {
+            return List.of();
+        }
+
+        UUID[] ids = postIds.toArray(UUID[]::new);
+        List<CommentView> comments = new ArrayList<>();
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT);
+                statement.setArray(1, connection.createArrayOf("uuid", ids));
+                statement.setInt(2, perPost);
+                return statement;
+            },
+            row -> {
+                comments.add(new CommentView(
+                    row.getObject(1, UUID.class),
+                    row.getObject(2, UUID.class),
+                    row.getObject(3, UUID.class),
+                    row.getString(4),
+                    row.getObject(5, LocalDateTime.class),
+                    row.getString(6),
+                    row.getLong(7),
+                    row.getObject(8, LocalDateTime.class),
+                    row.getObject(9, LocalDateTime.class)
+                ));
+            }
+        );
+        return comments;
+    }
+}
@@ -1,13 +1,66 @@
 package com.group1.froggy.jpa.post.comment;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CommentRepository extends JpaRepository<CommentJpa, UUID> {
-    List<CommentJpa> findCommentJpaByPostId(UUID postId);
-    long countByPostId(UUID postId);
+public interface CommentRepository extends JpaRepository<CommentJpa, UUID>, CommentCounterBatchUpdate, CommentPreviews {
+    /**
+     * First comments on a post with their authors, oldest first, read as {@link CommentView}s in one query. Served
+     * by {@code idx_comment_post_id_created_at_id} without sorting the post's comments.
+     */
+    @Query("""
+        select new com.group1.froggy.jpa.post.comment.CommentView(
+            c.id, c.post.id, a.id, a.username, a.createdAt, c.content, c.likeCount, c.createdAt, c.updatedAt)
+        from CommentJpa c join c.account a
+        where c.post.id = :postId
+        order by c.createdAt, c.id
+        """)
+    List<CommentView> findViewsByPostId(UUID postId, Pageable pageable);
+
+    /**
+     * Comments on a post strictly after the given {@code (createdAt, id)} position, oldest first. The leading
+     * {@code createdAt >=} bound lets the planner seek on {@code idx_comment_post_id_created_at_id}.
+     */
+    @Query("""
+        select new com.group1.froggy.jpa.post.comment.CommentView(
+            c.id, c.post.id, a.id, a.username, a.createdAt, c.content, c.likeCount, c.createdAt, c.updatedAt)
+        from CommentJpa c join c.account a
+        where c.post.id = :postId
+          and c.createdAt >= :createdAt and (c.createdAt > :createdAt or c.id > :id)
+        order by c.createdAt, c.id
+        """)
+    List<CommentView> findViewsByPostIdAfter(UUID postId, LocalDateTime createdAt, UUID id, Pageable pageable);
+
+    /**
+     * Load a comment together with its author, for calls that render the comment. Plain {@link #findById} leaves
+     * the author and post unloaded, which is enough for ownership checks.
+     */
+    @EntityGraph(CommentJpa.WITH_AUTHOR)
+    Optional<CommentJpa> findWithAuthorById(UUID id);
+
+    /**
+     * Atomically adjust the denormalized like counter. Runs as plain SQL so concurrent likes never overwrite
+     * each other, and the managed entity's copy of the counter is left untouched.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update comment set like_count = like_count + :delta where id = :commentId", nativeQuery = true)
+    int addToLikeCount(UUID commentId, long delta);
+
+    /**
+     * Comment ids in id order after {@code after}, used to walk the table in batches.
+     */
+    @Query("select c.id from CommentJpa c where c.id > :after order by c.id")
+    List<UUID> findIdsAfter(UUID after, Pageable pageable);
 }
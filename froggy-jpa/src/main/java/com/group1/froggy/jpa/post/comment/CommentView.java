@@ -0,0 +1,38 @@
+package com.group1.froggy.jpa.post.comment;
+
+import com.group1.froggy.api.account.Account;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only row of a comment and its author, built straight from a JPQL constructor expression. No entity is
+ * hydrated or tracked by the persistence context.
+ */
+public record CommentView(
+    UUID id,
+    UUID postId,
+    Account author,
+    String content,
+    long likeCount,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+
+    /**
+     * Flat form used by the queries, since constructor expressions cannot nest.
+     */
+    public CommentView(
+        UUID id,
+        UUID postId,
+        UUID authorId,
+        String authorUsername,
+        LocalDateTime authorCreatedAt,
+        String content,
+        long likeCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+    ) {
+        this(id, postId, new Account(authorId, authorUsername, authorCreatedAt), content, likeCount, createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,20 @@
+package com.group1.froggy.jpa.post.comment.like;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Multi-row like inserts for {@link CommentLikeRepository}, which Spring Data cannot express as a derived or
+ * {@code @Query} method.
+ */
+public interface CommentLikeBatchInsert {
+
+    /**
+     * Insert all likes with a single {@code INSERT ... ON CONFLICT DO NOTHING} statement. Likes that already exist
+     * are skipped.
+     *
+     * @param likes likes to insert
+     * @return the likes that were actually added
+     */
+    Set<CommentLikeId> insertAllIfAbsent(Collection<CommentLikeId> likes);
+}
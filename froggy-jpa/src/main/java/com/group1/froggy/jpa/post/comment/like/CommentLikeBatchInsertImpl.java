@@ -0,0 +1,50 @@
+package com.group1.froggy.jpa.post.comment.like;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class CommentLikeBatchInsertImpl implements CommentLikeBatchInsert {
+
+    // One statement shape for every batch size, so the server can reuse the prepared plan
+    private static final String INSERT = """
+        insert into comment_like (comment_id, account_id)
+        select * from unnest(?, ?)
+        on conflict do nothing
+        returning comment_id, account_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<CommentLikeId> insertAllIfAbsent(Collection<CommentLikeId> likes) {
+        UUID[] commentIds = new UUID[likes.size()];
+        UUID[] accountIds = new UUID[likes.size()];
+        int i = 0;
+        for (CommentLikeId like : likes) {
+            commentIds[i] = like.getCommentId();
+            accountIds[i] = like.getAccountId();
+            i++;
+        }
+
+        Set<CommentLikeId> inserted = new HashSet<>();
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT);
+                statement.setArray(1, connection.createArrayOf("uuid", commentIds));
+                statement.setArray(2, connection.createArrayOf("uuid", accountIds));
+                return statement;
+            },
+            row -> {
+                inserted.add(new CommentLikeId(row.getObject(1, UUID.class), row.getObject(2, UUID.class)));
+            }
+        );
+        return inserted;
+    }
+}
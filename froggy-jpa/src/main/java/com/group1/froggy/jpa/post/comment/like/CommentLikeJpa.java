@@ -5,6 +5,8 @@ import com.group1.froggy.jpa.post.comment.CommentJpa;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.UUID;
+
 @Entity
 @Table(name = "comment_like")
 @Getter
@@ -36,4 +38,8 @@ public class CommentLikeJpa {
             .account(account)
             .build();
     }
+
+    public static CommentLikeId createId(UUID commentId, UUID accountId) {
+        return new CommentLikeId(commentId, accountId);
+    }
 }
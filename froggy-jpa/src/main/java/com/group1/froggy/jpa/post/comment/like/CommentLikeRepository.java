@@ -1,11 +1,37 @@
 package com.group1.froggy.jpa.post.comment.like;
 
-import com.group1.froggy.jpa.post.comment.CommentJpa;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface CommentLikeRepository extends JpaRepository<CommentLikeJpa, CommentLikeId> {
-    long countByComment(CommentJpa comment);
-    void deleteAllByComment(CommentJpa comment);
+public interface CommentLikeRepository extends JpaRepository<CommentLikeJpa, CommentLikeId>, CommentLikeBatchInsert {
+    /**
+     * Insert a like unless the account already likes the comment.
+     *
+     * @return 1 when the like was added, 0 when it already existed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into comment_like (comment_id, account_id) values (:commentId, :accountId) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(UUID commentId, UUID accountId);
+
+    /**
+     * The subset of {@code commentIds} liked by {@code accountId}, answered from the primary key index.
+     */
+    @Query("select l.id.commentId from CommentLikeJpa l where l.id.accountId = :accountId and l.id.commentId in :commentIds")
+    List<UUID> findLikedCommentIds(UUID accountId, Collection<UUID> commentIds);
+
+    /**
+     * Ids of every comment liked by {@code accountId}, answered from the {@code account_id} index.
+     */
+    @Query("select l.id.commentId from CommentLikeJpa l where l.id.accountId = :accountId")
+    List<UUID> findCommentIdsLikedBy(UUID accountId, Limit limit);
 }
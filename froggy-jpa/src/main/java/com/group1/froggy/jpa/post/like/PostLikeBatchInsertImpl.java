@@ -0,0 +1,50 @@
+package com.group1.froggy.jpa.post.like;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class PostLikeBatchInsertImpl implements PostLikeBatchInsert {
+
+    // One statement shape for every batch size, so the server can reuse the prepared plan
+    private static final String INSERT = """
+        insert into post_like (post_id, account_id)
+        select * from unnest(?, ?)
+        on conflict do nothing
+        returning post_id, account_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<PostLikeId> insertAllIfAbsent(Collection<PostLikeId> likes) {
+        UUID[] postIds = new UUID[likes.size()];
+        UUID[] accountIds = new UUID[likes.size()];
+        int i = 0;
+        for (PostLikeId like : likes) {
+            postIds[i] = like.getPostId();
+            accountIds[i] = like.getAccountId();
+            i++;
+        }
+
+        Set<PostLikeId> inserted = new HashSet<>();
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT);
+                statement.setArray(1, connection.createArrayOf("uuid", postIds));
+                statement.setArray(2, connection.createArrayOf("uuid", accountIds));
+                return statement;
+            },
+            row -> {
+                inserted.add(new PostLikeId(row.getObject(1, UUID.class), row.getObject(2, UUID.class)));
+            }
+        );
+        return inserted;
+    }
+}
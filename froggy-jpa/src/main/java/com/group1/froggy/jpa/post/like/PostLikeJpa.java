@@ -5,7 +5,7 @@ import com.group1.froggy.jpa.post.PostJpa;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "post_like")
@@ -38,4 +38,8 @@ public class PostLikeJpa {
             .account(account)
             .build();
     }
+
+    public static PostLikeId createId(UUID postId, UUID accountId) {
+        return new PostLikeId(postId, accountId);
+    }
 }
@@ -1,11 +1,37 @@
 package com.group1.froggy.jpa.post.like;
 
-import com.group1.froggy.jpa.post.PostJpa;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface PostLikeRepository extends JpaRepository<PostLikeJpa, PostLikeId> {
-    long countByPost(PostJpa post);
-    void deleteAllByPost(PostJpa post);
+public interface PostLikeRepository extends JpaRepository<PostLikeJpa, PostLikeId>, PostLikeBatchInsert {
+    /**
+     * Insert a like unless the account already likes the post.
+     *
+     * @return 1 when the like was added, 0 when it already existed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into post_like (post_id, account_id) values (:postId, :accountId) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(UUID postId, UUID accountId);
+
+    /**
+     * The subset of {@code postIds} liked by {@code accountId}, answered from the primary key index.
+     */
+    @Query("select l.id.postId from PostLikeJpa l where l.id.accountId = :accountId and l.id.postId in :postIds")
+    List<UUID> findLikedPostIds(UUID accountId, Collection<UUID> postIds);
+
+    /**
+     * Ids of every post liked by {@code accountId}, answered from the {@code account_id} index.
+     */
+    @Query("select l.id.postId from PostLikeJpa l where l.id.accountId = :accountId")
+    List<UUID> findPostIdsLikedBy(UUID accountId, Limit limit);
 }
@@ -0,0 +1,6 @@
+alter table session add column last_seen_at timestamp;
+update session set last_seen_at = created_at;
+alter table session alter column last_seen_at set not null;
+
+create index idx_session_created_at on session (created_at);
+create index idx_session_last_seen_at on session (last_seen_at);
@@ -0,0 +1,2 @@
+-- The primary key leads with token, so per-account lookups and deletes could not use it.
+create index idx_session_account_id_last_seen_at on session (account_id, last_seen_at desc);
@@ -0,0 +1,2 @@
+-- Serves the feed ordering, and the keyset seek on (created_at, id), without sorting the whole table.
+create index idx_post_created_at_id on post (created_at desc, id desc);
@@ -0,0 +1,12 @@
+-- Like and comment totals kept on the rows themselves, so reads never have to count.
+-- Constant defaults make these metadata-only changes; the backfill below sets the real values.
+alter table post add column like_count bigint not null default 0;
+alter table post add column comment_count bigint not null default 0;
+alter table comment add column like_count bigint not null default 0;
+
+update post p
+set like_count = (select count(*) from post_like l where l.post_id = p.id),
+    comment_count = (select count(*) from comment c where c.post_id = p.id);
+
+update comment c
+set like_count = (select count(*) from comment_like l where l.comment_id = c.id);
@@ -0,0 +1,30 @@
+-- Deleting a post, comment or account removes everything hanging off it in the same statement, so the
+-- application no longer loads and deletes dependent rows one by one. Every referencing column is indexed,
+-- so each cascade is an index lookup; post.account_id was the one column missing an index.
+create index idx_post_account_id on post (account_id);
+
+alter table post_like
+    drop constraint post_like_post_id_fkey,
+    add constraint post_like_post_id_fkey foreign key (post_id) references post (id) on delete cascade,
+    drop constraint post_like_account_id_fkey,
+    add constraint post_like_account_id_fkey foreign key (account_id) references account (id) on delete cascade;
+
+alter table comment
+    drop constraint comment_post_id_fkey,
+    add constraint comment_post_id_fkey foreign key (post_id) references post (id) on delete cascade,
+    drop constraint comment_account_id_fkey,
+    add constraint comment_account_id_fkey foreign key (account_id) references account (id) on delete cascade;
+
+alter table comment_like
+    drop constraint comment_like_comment_id_fkey,
+    add constraint comment_like_comment_id_fkey foreign key (comment_id) references comment (id) on delete cascade,
+    drop constraint comment_like_account_id_fkey,
+    add constraint comment_like_account_id_fkey foreign key (account_id) references account (id) on delete cascade;
+
+alter table post
+    drop constraint post_account_id_fkey,
+    add constraint post_account_id_fkey foreign key (account_id) references account (id) on delete cascade;
+
+alter table session
+    drop constraint session_account_id_fkey,
+    add constraint session_account_id_fkey foreign key (account_id) references account (id) on delete cascade;
@@ -0,0 +1,4 @@
+-- Serves the comment ordering of a post, and the keyset seek on (created_at, id), without sorting its comments.
+-- It also covers every lookup by post_id, so the single-column index is no longer needed.
+create index idx_comment_post_id_created_at_id on comment (post_id, created_at, id);
+drop index idx_comment_post_id;